@@ -0,0 +1,357 @@
+package fr.alexpado.commandr.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.FilerException;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Annotation processor generating a dispatcher for each {@code CommandImpl} subclass declaring methods annotated with
+ * {@code @Command}.
+ * <p>
+ * The generated dispatcher extends {@code fr.alexpado.commandr.impl.plan.CommandDispatcher}: it declares every method
+ * with its syntax and priority read at compile time, and invokes them with direct method calls. When the dispatcher of
+ * a class cannot be generated (private method, private class...), a note is reported and the class keeps being
+ * dispatched using reflection.
+ * <p>
+ * Parameters that would make the registration of the command fail are reported as errors. A command deliberately
+ * declaring such parameters can be annotated with {@code @SuppressWarnings("commandr")}, on the class or the method,
+ * to skip the check: no dispatcher is generated for its class.
+ * <p>
+ * This processor does not depend on commandr itself: annotations and classes are referenced by name only.
+ */
+@SupportedAnnotationTypes(CommandProcessor.COMMAND)
+public class CommandProcessor extends AbstractProcessor {
+
+    static final String COMMAND      = "fr.alexpado.commandr.annotations.Command";
+    static final String PARAM        = "fr.alexpado.commandr.annotations.Param";
+    static final String COMMAND_IMPL = "fr.alexpado.commandr.impl.CommandImpl";
+    static final String DISPATCHER   = "fr.alexpado.commandr.impl.plan.CommandDispatcher";
+    static final String SUPPRESSION  = "commandr";
+
+    /**
+     * Must be kept in sync with {@code CommandDispatcher#SUFFIX}.
+     */
+    static final String SUFFIX = "_CommandrDispatcher";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        Elements    elements = this.processingEnv.getElementUtils();
+        TypeElement command  = elements.getTypeElement(COMMAND);
+
+        if (command == null) {
+            return false;
+        }
+
+        Map<TypeElement, List<ExecutableElement>> methodsByType = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(command)) {
+            if (element.getKind() == ElementKind.METHOD) {
+                methodsByType.computeIfAbsent((TypeElement) element.getEnclosingElement(), type -> new ArrayList<>())
+                             .add((ExecutableElement) element);
+            }
+        }
+
+        methodsByType.forEach((type, methods) -> {
+            String reason = this.getUnsupportedReason(type, methods);
+
+            if (reason == null) {
+                this.generate(type, methods);
+            } else if (reason.length() > 0) {
+                this.processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.NOTE,
+                        "No dispatcher generated for " + type.getQualifiedName() + ", reflection will be used: " + reason,
+                        type
+                );
+            }
+        });
+
+        return false;
+    }
+
+    /**
+     * Check if a dispatcher can be generated for the provided type.
+     *
+     * @return {@code null} if a dispatcher can be generated, an empty string if the type is silently ignored, or the
+     *         reason for which the dispatcher cannot be generated.
+     */
+    private String getUnsupportedReason(TypeElement type, List<ExecutableElement> methods) {
+
+        Types       types       = this.processingEnv.getTypeUtils();
+        TypeElement commandImpl = this.processingEnv.getElementUtils().getTypeElement(COMMAND_IMPL);
+
+        if (commandImpl == null || type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "";
+        }
+
+        if (!types.isSubtype(types.erasure(type.asType()), types.erasure(commandImpl.asType()))) {
+            return "";
+        }
+
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            TypeElement enclosing = (TypeElement) element;
+
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                return "the class " + enclosing.getSimpleName() + " is private.";
+            }
+            if (enclosing.getNestingKind() == NestingKind.MEMBER && !enclosing.getModifiers().contains(Modifier.STATIC)) {
+                return "the class " + enclosing.getSimpleName() + " is an inner class.";
+            }
+            if (enclosing.getNestingKind().isNested() && enclosing.getNestingKind() != NestingKind.MEMBER) {
+                return "the class " + enclosing.getSimpleName() + " is a local or anonymous class.";
+            }
+        }
+
+        TypeMirror exception = this.processingEnv.getElementUtils().getTypeElement("java.lang.Exception").asType();
+        TypeMirror error     = this.processingEnv.getElementUtils().getTypeElement("java.lang.Error").asType();
+
+        for (ExecutableElement method : methods) {
+            if (method.getModifiers().contains(Modifier.PRIVATE)) {
+                return "the method " + method.getSimpleName() + " is private.";
+            }
+            if (method.getModifiers().contains(Modifier.STATIC)) {
+                return "the method " + method.getSimpleName() + " is static.";
+            }
+            for (TypeMirror thrown : method.getThrownTypes()) {
+                if (!types.isSubtype(thrown, exception) && !types.isSubtype(thrown, error)) {
+                    return "the method " + method.getSimpleName() + " throws " + thrown + ".";
+                }
+            }
+
+            String parameterReason = this.getUnsupportedParameterReason(method);
+            if (parameterReason != null) {
+                if (!isSuppressed(method)) {
+                    this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, parameterReason, method);
+                }
+                return "";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check that every parameter annotated with {@code @Param} can receive a value, and that no other parameter is
+     * primitive, as the registration of the command would fail otherwise.
+     */
+    private String getUnsupportedParameterReason(ExecutableElement method) {
+
+        Elements   elements = this.processingEnv.getElementUtils();
+        Types      types    = this.processingEnv.getTypeUtils();
+        TypeMirror string   = elements.getTypeElement("java.lang.String").asType();
+        TypeMirror optional = types.erasure(elements.getTypeElement("java.util.Optional").asType());
+
+        for (VariableElement parameter : method.getParameters()) {
+            if (this.findAnnotation(parameter, PARAM) == null) {
+                if (parameter.asType().getKind().isPrimitive()) {
+                    return String.format(
+                            "Parameters without @Param cannot be primitive, %s will fail at registration.",
+                            method.getSimpleName()
+                    );
+                }
+                continue;
+            }
+
+            TypeMirror type = types.erasure(parameter.asType());
+            if (!types.isSameType(type, optional) && !types.isAssignable(string, type)) {
+                return String.format(
+                        "@Param can only be used on String or Optional parameters, %s will fail at registration.",
+                        method.getSimpleName()
+                );
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if the provided element, or one of its enclosing elements, is annotated with
+     * {@code @SuppressWarnings("commandr")}.
+     */
+    private static boolean isSuppressed(Element element) {
+
+        for (Element current = element; current != null; current = current.getEnclosingElement()) {
+            SuppressWarnings suppressed = current.getAnnotation(SuppressWarnings.class);
+            if (suppressed != null && Arrays.asList(suppressed.value()).contains(SUPPRESSION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AnnotationMirror findAnnotation(Element element, String name) {
+
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+
+            if (annotation.getQualifiedName().contentEquals(name)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private Object getAnnotationValue(AnnotationMirror mirror, String name) {
+
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values = this.processingEnv.getElementUtils()
+                                                                                              .getElementValuesWithDefaults(mirror);
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        throw new IllegalStateException("Missing annotation value " + name);
+    }
+
+    private void generate(TypeElement type, List<ExecutableElement> methods) {
+
+        Elements elements = this.processingEnv.getElementUtils();
+        Types    types    = this.processingEnv.getTypeUtils();
+
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName  = elements.getBinaryName(type).toString();
+        String simpleName  = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_') + SUFFIX;
+        String typeName    = type.getQualifiedName().toString();
+
+        StringBuilder declarations = new StringBuilder();
+        StringBuilder cases        = new StringBuilder();
+
+        for (int i = 0; i < methods.size(); i++) {
+            ExecutableElement method  = methods.get(i);
+            AnnotationMirror  command = this.findAnnotation(method, COMMAND);
+
+            List<String> classes   = new ArrayList<>();
+            List<String> arguments = new ArrayList<>();
+
+            List<? extends VariableElement> parameters = method.getParameters();
+            for (int j = 0; j < parameters.size(); j++) {
+                TypeMirror parameterType = types.erasure(parameters.get(j).asType());
+                classes.add(this.getTypeName(parameterType) + ".class");
+                arguments.add("(" + this.getCastType(parameterType) + ") arguments[" + j + "]");
+            }
+
+            declarations.append(String.format(
+                    "        this.declare(\"%s\", new Class<?>[]{%s}, \"%s\", %s);%n",
+                    method.getSimpleName(),
+                    String.join(", ", classes),
+                    escape((String) this.getAnnotationValue(command, "value")),
+                    this.getAnnotationValue(command, "order")
+            ));
+
+            String call = String.format("command.%s(%s)", method.getSimpleName(), String.join(", ", arguments));
+            cases.append(String.format("            case %d:%n", i));
+            if (method.getReturnType().getKind() == TypeKind.VOID) {
+                cases.append(String.format("                %s;%n", call));
+                cases.append(String.format("                return null;%n"));
+            } else {
+                cases.append(String.format("                return %s;%n", call));
+            }
+        }
+
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        try {
+            JavaFileObject file = this.processingEnv.getFiler().createSourceFile(qualifiedName, type);
+
+            try (Writer writer = file.openWriter()) {
+                if (!packageName.isEmpty()) {
+                    writer.write(String.format("package %s;%n%n", packageName));
+                }
+                writer.write(String.format("/**%n * Dispatcher of {@link %s}, generated by commandr-processor.%n */%n", typeName));
+                writer.write(String.format("@SuppressWarnings({\"unchecked\", \"rawtypes\"})%n"));
+                writer.write(String.format("public final class %s extends %s {%n%n", simpleName, DISPATCHER));
+                writer.write(String.format("    public %s() {%n%n", simpleName));
+                writer.write(String.format("        super(%s.class);%n", typeName));
+                writer.write(declarations.toString());
+                writer.write(String.format("    }%n%n"));
+                writer.write(String.format("    @Override%n"));
+                writer.write(String.format("    public Object invoke(int index, Object target, Object[] arguments) throws Exception {%n%n"));
+                writer.write(String.format("        %s command = (%s) target;%n%n", typeName, typeName));
+                writer.write(String.format("        switch (index) {%n"));
+                writer.write(cases.toString());
+                writer.write(String.format("            default:%n"));
+                writer.write(String.format("                throw new IllegalArgumentException(\"Unknown method index \" + index);%n"));
+                writer.write(String.format("        }%n"));
+                writer.write(String.format("    }%n"));
+                writer.write(String.format("}%n"));
+            }
+        } catch (FilerException e) {
+            // The dispatcher has already been generated during a previous round.
+        } catch (IOException e) {
+            this.processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR,
+                    "Unable to generate the dispatcher of " + type.getQualifiedName() + ": " + e.getMessage(),
+                    type
+            );
+        }
+    }
+
+    private String getCastType(TypeMirror type) {
+
+        if (type.getKind().isPrimitive()) {
+            return this.processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return this.getTypeName(type);
+    }
+
+    /**
+     * Retrieve the source name of the provided erased type. {@link TypeMirror#toString()} is not used, as it includes
+     * the type annotations.
+     */
+    private String getTypeName(TypeMirror type) {
+
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase(Locale.ROOT);
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return this.getTypeName(((ArrayType) type).getComponentType()) + "[]";
+        }
+        return ((TypeElement) this.processingEnv.getTypeUtils().asElement(type)).getQualifiedName().toString();
+    }
+
+    private static String escape(String value) {
+
+        StringBuilder builder = new StringBuilder(value.length());
+
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
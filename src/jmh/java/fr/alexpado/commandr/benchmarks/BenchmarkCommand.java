@@ -0,0 +1,65 @@
+package fr.alexpado.commandr.benchmarks;
+
+import fr.alexpado.commandr.annotations.Command;
+import fr.alexpado.commandr.annotations.Param;
+import fr.alexpado.commandr.impl.CommandImpl;
+import fr.alexpado.commandr.interfaces.ICommandContext;
+import fr.alexpado.commandr.interfaces.ICommandMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command used by the benchmarks, with a literal, a variable and a filler syntax.
+ */
+public class BenchmarkCommand extends CommandImpl<Object> {
+
+    private final ICommandMeta<Object> meta;
+
+    public BenchmarkCommand(String label) {
+
+        this.meta = new ICommandMeta<>() {
+
+            @Override
+            public @NotNull String getLabel() {
+
+                return label;
+            }
+
+            @Override
+            public String getDescription() {
+
+                return "Benchmark command";
+            }
+
+            @Override
+            public @Nullable Map<String, List<String>> getOptions(@NotNull ICommandContext<Object> context) {
+
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public @NotNull ICommandMeta<Object> getMeta() {
+
+        return this.meta;
+    }
+
+    @Command(value = "world", order = 0)
+    public String world() {
+        return "Hello World!";
+    }
+
+    @Command(value = "[name]", order = 1)
+    public String name(@Param("name") String name) {
+        return name;
+    }
+
+    @Command(value = "echo text...", order = 0)
+    public String echo(@Param("text") String text) {
+        return text;
+    }
+}
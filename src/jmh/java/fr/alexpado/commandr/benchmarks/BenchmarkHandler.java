@@ -0,0 +1,16 @@
+package fr.alexpado.commandr.benchmarks;
+
+import fr.alexpado.commandr.CommandHandler;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link CommandHandler} used by the benchmarks, accepting commands prefixed by {@code !}.
+ */
+public class BenchmarkHandler extends CommandHandler<Object> {
+
+    @Override
+    public @NotNull String getApplicablePrefix(@NotNull Object emitter) {
+
+        return "!";
+    }
+}
@@ -0,0 +1,66 @@
+package fr.alexpado.commandr.benchmarks;
+
+import fr.alexpado.commandr.interfaces.ICommandResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure {@link BenchmarkHandler#handle(Object, String)} for each outcome of the dispatch pipeline, from the cheapest
+ * rejection to a full execution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandleBenchmark {
+
+    private BenchmarkHandler handler;
+    private Object           emitter;
+
+    @Setup
+    public void setup() {
+
+        this.handler = new BenchmarkHandler();
+        this.emitter = new Object();
+        this.handler.register(new BenchmarkCommand("hello"));
+    }
+
+    @Benchmark
+    public ICommandResult<Object> prefixMiss() {
+
+        return this.handler.handle(this.emitter, "hello world, this is not a command");
+    }
+
+    @Benchmark
+    public ICommandResult<Object> unknownLabel() {
+
+        return this.handler.handle(this.emitter, "!unknown world");
+    }
+
+    @Benchmark
+    public ICommandResult<Object> syntaxError() {
+
+        return this.handler.handle(this.emitter, "!hello this does not match");
+    }
+
+    @Benchmark
+    public ICommandResult<Object> literalMatch() {
+
+        return this.handler.handle(this.emitter, "!hello world");
+    }
+
+    @Benchmark
+    public ICommandResult<Object> variableMatch() {
+
+        return this.handler.handle(this.emitter, "!hello John");
+    }
+
+    @Benchmark
+    public ICommandResult<Object> fillerMatch() {
+
+        return this.handler.handle(this.emitter, "!hello echo this text is echoed back");
+    }
+}
@@ -0,0 +1,54 @@
+package fr.alexpado.commandr.benchmarks;
+
+import fr.alexpado.commandr.impl.plan.MethodInvoker;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the reflective {@link Method#invoke(Object, Object...)} dispatch with the {@link MethodInvoker} used by
+ * the command plans.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokerBenchmark {
+
+    private Target        target;
+    private Method        method;
+    private MethodInvoker invoker;
+    private Object[]      arguments;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+
+        this.target    = new Target();
+        this.method    = Target.class.getMethod("greet", String.class, Integer.class);
+        this.invoker   = MethodInvoker.of(this.method);
+        this.arguments = new Object[]{"John", 42};
+    }
+
+    @Benchmark
+    public Object reflection() throws Exception {
+
+        return this.method.invoke(this.target, this.arguments);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Exception {
+
+        return this.invoker.invoke(this.target, this.arguments);
+    }
+
+    public static class Target {
+
+        public String greet(String name, Integer times) {
+
+            return times > 0 ? name : null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package fr.alexpado.commandr.benchmarks;
+
+import fr.alexpado.commandr.interfaces.ICommandResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the cost of notifying an increasing amount of {@link NoopListener} during a successful execution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerBenchmark {
+
+    @Param({"0", "5", "50"})
+    private int listeners;
+
+    private BenchmarkHandler handler;
+    private Object           emitter;
+
+    @Setup
+    public void setup() {
+
+        this.handler = new BenchmarkHandler();
+        this.emitter = new Object();
+        this.handler.register(new BenchmarkCommand("hello"));
+
+        for (int i = 0; i < this.listeners; i++) {
+            this.handler.addEventListener(new NoopListener());
+        }
+    }
+
+    @Benchmark
+    public ICommandResult<Object> fanOut() {
+
+        return this.handler.handle(this.emitter, "!hello world");
+    }
+}
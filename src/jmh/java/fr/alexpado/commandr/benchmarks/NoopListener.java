@@ -0,0 +1,25 @@
+package fr.alexpado.commandr.benchmarks;
+
+import fr.alexpado.commandr.interfaces.*;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link ICommandListener} doing nothing, used to measure the cost of notifying listeners.
+ */
+public class NoopListener implements ICommandListener<Object> {
+
+    @Override
+    public void onCommandExecution(@NotNull ICommandEvent<Object> event) {}
+
+    @Override
+    public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {}
+
+    @Override
+    public void onSyntaxError(@NotNull ICommandContext<Object> context) {}
+
+    @Override
+    public void onContextCreated(@NotNull ICommandContext<Object> context) {}
+
+    @Override
+    public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {}
+}
@@ -0,0 +1,49 @@
+package fr.alexpado.commandr.benchmarks;
+
+import fr.alexpado.commandr.interfaces.ICommandResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure how the size of the registry affects the label resolution, for both a registered and an unknown label.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int commands;
+
+    private BenchmarkHandler handler;
+    private Object           emitter;
+    private String           known;
+
+    @Setup
+    public void setup() {
+
+        this.handler = new BenchmarkHandler();
+        this.emitter = new Object();
+
+        for (int i = 0; i < this.commands; i++) {
+            this.handler.register(new BenchmarkCommand("command" + i));
+        }
+        this.known = "!command" + (this.commands / 2) + " world";
+    }
+
+    @Benchmark
+    public ICommandResult<Object> knownLabel() {
+
+        return this.handler.handle(this.emitter, this.known);
+    }
+
+    @Benchmark
+    public ICommandResult<Object> unknownLabel() {
+
+        return this.handler.handle(this.emitter, "!command world");
+    }
+}
@@ -1,67 +1,313 @@
 package fr.alexpado.commandr;
 
-import fr.alexpado.commandr.exceptions.SyntaxErrorException;
+import fr.alexpado.commandr.annotations.RateLimit;
 import fr.alexpado.commandr.impl.CommandContext;
 import fr.alexpado.commandr.impl.CommandEvent;
+import fr.alexpado.commandr.impl.CommandImpl;
+import fr.alexpado.commandr.impl.CommandInput;
+import fr.alexpado.commandr.impl.CommandRegistry;
 import fr.alexpado.commandr.impl.CommandResult;
+import fr.alexpado.commandr.impl.CommandScanner;
+import fr.alexpado.commandr.impl.ListenerChain;
+import fr.alexpado.commandr.impl.ListenerChain.Callback;
+import fr.alexpado.commandr.impl.RateLimits;
+import fr.alexpado.commandr.impl.RegistrationReport;
+import fr.alexpado.commandr.impl.VirtualThreads;
+import fr.alexpado.commandr.impl.jfr.DispatchEvent;
+import fr.alexpado.commandr.impl.jfr.ExecutionEvent;
+import fr.alexpado.commandr.impl.jfr.ResolutionEvent;
+import fr.alexpado.commandr.impl.plan.CommandPlan;
+import fr.alexpado.commandr.impl.plan.MethodInvoker;
+import fr.alexpado.commandr.impl.plan.MethodPlan;
+import fr.alexpado.commandr.impl.plan.RegistrySnapshot;
+import fr.alexpado.commandr.impl.plan.SyntaxMatch;
+import fr.alexpado.commandr.impl.plan.SyntaxPattern;
 import fr.alexpado.commandr.interfaces.*;
+import fr.alexpado.commandr.interfaces.ICommandMetrics.Outcome;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 public abstract class CommandHandler<T> implements ICommandHandler<T> {
 
-    private final Map<String, ICommand<T>>          commands;
-    private final Map<Integer, ICommandListener<T>> listeners;
+    /**
+     * Start time of a message handled while metrics are disabled.
+     */
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    /**
+     * Minimum amount of synthetic messages handled by {@link #warmUp(Object)}, enough for the JIT compiler to
+     * optimize the hot paths.
+     */
+    public static final int WARM_UP_MESSAGES = 20_000;
+
+    private final    AtomicReference<CommandRegistry<T>> registry;
+    private final    RateLimits                          rateLimits;
+    private volatile boolean                             ignoreUnprefixedMessages;
+    private volatile Executor                            executor;
+    private          ExecutorService                     virtualThreadExecutor;
+    private volatile ICommandMetrics                     metrics;
+    private volatile boolean                             ready;
+    private volatile boolean                             recycleContexts;
+    private final    ThreadLocal<CommandContext<T>>      idleContexts;
 
     public CommandHandler() {
 
-        this.commands  = new HashMap<>();
-        this.listeners = new HashMap<>();
+        this.registry                 = new AtomicReference<>(CommandRegistry.empty());
+        this.rateLimits               = new RateLimits();
+        this.ignoreUnprefixedMessages = false;
+        this.executor                 = ForkJoinPool.commonPool();
+        this.metrics                  = ICommandMetrics.noop();
+        this.ready                    = false;
+        this.recycleContexts          = false;
+        this.idleContexts             = new ThreadLocal<>();
+    }
+
+    /**
+     * Retrieve the current {@link CommandRegistry} snapshot of this {@link CommandHandler}. The snapshot will never
+     * change, even if commands or listeners are registered afterward.
+     *
+     * @return A {@link CommandRegistry}.
+     */
+    public @NotNull CommandRegistry<T> getRegistry() {
+
+        return this.registry.get();
+    }
+
+    /**
+     * Atomically replace the current {@link CommandRegistry} by the result of the provided function, retrying if the
+     * registry has been modified concurrently.
+     *
+     * @param update
+     *         The function creating the new {@link CommandRegistry} from the current one.
+     */
+    protected void updateRegistry(@NotNull UnaryOperator<CommandRegistry<T>> update) {
+
+        CommandRegistry<T> current;
+        CommandRegistry<T> next;
+
+        do {
+            current = this.registry.get();
+            next    = update.apply(current);
+        } while (!this.registry.compareAndSet(current, next));
     }
 
     /**
-     * Retrieve an {@link Optional} {@link ICommand} matching the provided label.
+     * Retrieve an {@link Optional} {@link ICommand} matching the provided label or alias, ignoring the case.
      *
      * @param label
-     *         The label associated to the {@link ICommand} to retrieve
+     *         The label or alias associated to the {@link ICommand} to retrieve
      *
      * @return An {@link Optional} {@link ICommand}
      */
     @Override
     public @NotNull Optional<ICommand<T>> getCommand(@NotNull String label) {
 
-        return Optional.ofNullable(this.commands.get(label));
+        return Optional.ofNullable(this.registry.get().getCommand(label));
     }
 
     /**
-     * Register the provided command.
+     * Register the provided command, under its label and all of its aliases. This method can be safely called while
+     * commands are being handled.
      *
      * @param command
      *         The {@link ICommand} to register.
+     *
+     * @throws IllegalStateException
+     *         Threw if the label or one of the aliases of the command is already in use.
      */
     @Override
     public void register(@NotNull ICommand<T> command) {
 
-        String label = command.getMeta().getLabel();
-        if (this.getCommand(label).isPresent()) {
+        if (this.getCommand(command.getMeta().getLabel()).isPresent()) {
             throw new IllegalStateException("Tried to register an already registered command.");
         }
-        this.commands.put(label, command);
+
+        command.compile();
+        this.updateRegistry(registry -> registry.withCommand(command));
+    }
+
+    /**
+     * Register every provided command, compiling them in parallel on the common {@link ForkJoinPool}.
+     *
+     * @param commands
+     *         The {@link ICommand}s to register.
+     *
+     * @return A {@link RegistrationReport} giving the compile time of each {@link ICommand}.
+     *
+     * @throws IllegalStateException
+     *         Threw if a command could not be compiled, or if a label or an alias is already in use. In this case, no
+     *         command is registered.
+     * @see #registerAll(Collection, ForkJoinPool)
+     */
+    public @NotNull RegistrationReport registerAll(@NotNull Collection<? extends ICommand<T>> commands) {
+
+        return this.registerAll(commands, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Register every provided command. Commands are compiled in parallel on the provided {@link ForkJoinPool}, then
+     * their labels and aliases are checked in a single pass and the registry is updated only once. This method can be
+     * safely called while commands are being handled.
+     *
+     * @param commands
+     *         The {@link ICommand}s to register.
+     * @param pool
+     *         The {@link ForkJoinPool} on which the commands are compiled.
+     *
+     * @return A {@link RegistrationReport} giving the compile time of each {@link ICommand}.
+     *
+     * @throws IllegalStateException
+     *         Threw if a command could not be compiled, or if a label or an alias is already in use. In this case, no
+     *         command is registered.
+     */
+    public @NotNull RegistrationReport registerAll(@NotNull Collection<? extends ICommand<T>> commands, @NotNull ForkJoinPool pool) {
+
+        long                       start   = System.nanoTime();
+        List<ICommand<T>>          list    = new ArrayList<>(commands);
+        RegistrationReport.Entry[] entries = new RegistrationReport.Entry[list.size()];
+        List<ForkJoinTask<?>>      tasks   = new ArrayList<>(list.size());
+
+        for (int i = 0; i < list.size(); i++) {
+            int         index   = i;
+            ICommand<T> command = list.get(i);
+
+            tasks.add(ForkJoinTask.adapt(() -> {
+                long begin = System.nanoTime();
+                command.compile();
+                entries[index] = new RegistrationReport.Entry(command.getMeta().getLabel(), command.getClass(), System.nanoTime() - begin);
+            }));
+        }
+
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Unable to compile the commands: " + e.getMessage(), e);
+        }
+
+        this.updateRegistry(registry -> registry.withCommands(list));
+        return new RegistrationReport(Arrays.asList(entries), System.nanoTime() - start);
+    }
+
+    /**
+     * Register an instance of every concrete {@link CommandImpl} subclass found in the provided package and its
+     * sub-packages, created using its public constructor without parameters. Classes without such constructor are
+     * ignored.
+     *
+     * @param packageName
+     *         The name of the package to scan.
+     *
+     * @return A {@link RegistrationReport} giving the compile time of each {@link ICommand}.
+     *
+     * @throws IllegalStateException
+     *         Threw if the package could not be scanned, if a command could not be created or compiled, or if a label
+     *         or an alias is already in use. In this case, no command is registered.
+     */
+    public @NotNull RegistrationReport registerPackage(@NotNull String packageName) {
+
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = this.getClass().getClassLoader();
+        }
+
+        List<ICommand<T>> commands = new ArrayList<>();
+
+        try {
+            for (Class<? extends CommandImpl<?>> type : CommandScanner.scan(packageName, loader)) {
+                //noinspection unchecked
+                commands.add((ICommand<T>) type.getConstructor().newInstance());
+            }
+        } catch (IOException | ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to register the commands of the package " + packageName, e);
+        }
+        return this.registerAll(commands);
+    }
+
+    /**
+     * Discard the syntaxes of the provided {@link ICommand} compiled with the options of the provided key, so that the
+     * options are retrieved again on the next execution.
+     *
+     * @param command
+     *         The {@link ICommand} whose options changed.
+     * @param key
+     *         The key of the options, as returned by {@link ICommandMeta#getOptionsKey(ICommandContext)}, or null to
+     *         discard every compiled syntax of the {@link ICommand}.
+     */
+    public void invalidateOptions(@NotNull ICommand<T> command, @Nullable Object key) {
+
+        command.invalidateOptions(key);
+    }
+
+    /**
+     * Load the compiled plans of the provided {@link CommandImpl} subclasses from a snapshot written by
+     * {@link #saveSnapshot(Path)}, so that registering their instances does not require compiling them again. This
+     * method must be called before registering the commands.
+     *
+     * @param file
+     *         The snapshot file.
+     * @param types
+     *         The {@link CommandImpl} subclasses that will be registered.
+     *
+     * @return True if the snapshot has been loaded for every class, false if it is missing or stale, or if some classes
+     *         had already been compiled, and these commands will not use the snapshot.
+     */
+    public boolean loadSnapshot(@NotNull Path file, @NotNull Collection<? extends Class<?>> types) {
+
+        return RegistrySnapshot.load(file, types);
+    }
+
+    /**
+     * Write the compiled plans of every registered {@link CommandImpl} to the provided file, so that they can be
+     * loaded with {@link #loadSnapshot(Path, Collection)} on the next start.
+     *
+     * @param file
+     *         The snapshot file.
+     *
+     * @throws IOException
+     *         Threw if the snapshot could not be written.
+     */
+    public void saveSnapshot(@NotNull Path file) throws IOException {
+
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (ICommand<T> command : this.registry.get().getCommands().values()) {
+            if (command instanceof CommandImpl) {
+                types.add(command.getClass());
+            }
+        }
+        RegistrySnapshot.write(file, types);
     }
 
     /**
-     * Get a {@link Map} mapping every registered command label and their corresponding {@link ICommand}.
+     * Get an unmodifiable {@link Map} mapping every registered command label and their corresponding {@link ICommand}.
      *
      * @return A {@link Map} of {@link String} and {@link ICommand}
      */
     @Override
     public @NotNull Map<String, ICommand<T>> getCommands() {
 
-        return this.commands;
+        return this.registry.get().getCommands();
     }
 
     /**
@@ -81,6 +327,10 @@ public abstract class CommandHandler<T> implements ICommandHandler<T> {
     /**
      * Start the command execution from the provided emitter. Please note that even if this method is called, this do
      * not ensure that a command will be executed.
+     * <p>
+     * Messages that do not start with the prefix applicable to the emitter, or that do not target a registered label,
+     * are rejected before any {@link ICommandContext} is created: a shared {@link ICommandResult} is returned and only
+     * {@link ICommandListener#onCommandNotFound(ICommandHandler, Object, String)} is called.
      *
      * @param emitter
      *         The object {@link T} emitting a command.
@@ -92,47 +342,780 @@ public abstract class CommandHandler<T> implements ICommandHandler<T> {
     @Override
     public ICommandResult<T> handle(@NotNull T emitter, @NotNull String message) {
 
-        String             prefix  = this.getApplicablePrefix(emitter).toLowerCase();
-        String             msg     = message.toLowerCase();
-        String             label   = msg.split(" ")[0].replace(prefix, "");
-        ICommandContext<T> context = this.createContext(emitter);
-        this.listeners.values().forEach(listener -> listener.onContextCreated(context));
+        // Every step of the handling uses the same snapshot, even if the registry is modified meanwhile.
+        return this.handle(this.registry.get(), emitter, message, this.startTiming(), this.recycleContexts, false);
+    }
 
-        Optional<ICommand<T>> optionalCommand = this.getCommand(label);
+    /**
+     * Handle the provided message against the provided {@link CommandRegistry} snapshot.
+     *
+     * @return An {@link ICommandResult} implementation representing the result of the command.
+     */
+    private ICommandResult<T> handle(CommandRegistry<T> registry, T emitter, String message, long start, boolean recycle, boolean warmUp) {
 
-        if (optionalCommand.isEmpty()) {
-            this.listeners.values().forEach(listener -> listener.onCommandNotFound(this, emitter, message));
-            return new CommandResult<>(context);
+        ICommandEvent<T> event = this.dispatch(registry, this.rateLimits, emitter, message, start, recycle, warmUp);
+
+        if (event == null) {
+            return CommandResult.notFound();
+        }
+
+        try {
+            if (event.isCancelled()) {
+                return this.complete(event, null, Outcome.CANCELLED, start, new CommandResult<>(event.getContext()));
+            }
+
+            return this.execute(registry, event, start);
+        } finally {
+            if (recycle) {
+                this.releaseContext(event.getContext());
+            }
         }
+    }
+
+    /**
+     * Start the command execution from the provided emitter, using the {@link Executor} of this
+     * {@link CommandHandler} to run the command.
+     *
+     * @param emitter
+     *         The object {@link T} emitting a command.
+     * @param message
+     *         The user input corresponding to a command.
+     *
+     * @return A {@link CompletableFuture} completed with the {@link ICommandResult} of the command.
+     *
+     * @see #handleAsync(Object, String, Executor)
+     */
+    @Override
+    public @NotNull CompletableFuture<ICommandResult<T>> handleAsync(@NotNull T emitter, @NotNull String message) {
+
+        return this.handleAsync(emitter, message, this.executor);
+    }
+
+    /**
+     * Start the command execution from the provided emitter, using the provided {@link Executor} to run the command.
+     * <p>
+     * Only the command body is executed on the {@link Executor}: the prefix and label resolution, the
+     * {@link ICommandListener#onCommandExecution(ICommandEvent)} cancellation check and the syntax matching are done
+     * on the calling thread. When no command body needs to run, the returned {@link CompletableFuture} is already
+     * completed.
+     *
+     * @param emitter
+     *         The object {@link T} emitting a command.
+     * @param message
+     *         The user input corresponding to a command.
+     * @param executor
+     *         The {@link Executor} on which the command body will be executed.
+     *
+     * @return A {@link CompletableFuture} completed with the {@link ICommandResult} of the command.
+     */
+    @Override
+    public @NotNull CompletableFuture<ICommandResult<T>> handleAsync(@NotNull T emitter, @NotNull String message, @NotNull Executor executor) {
+
+        CommandRegistry<T> registry = this.registry.get();
+        long               start    = this.startTiming();
+        ICommandEvent<T>   event    = this.dispatch(registry, this.rateLimits, emitter, message, start, false, false);
 
-        ICommand<T>      command = optionalCommand.get();
-        ICommandEvent<T> event   = new CommandEvent<>(context, this, command, emitter, message);
-        this.listeners.values().forEach(listener -> listener.onCommandExecution(event));
+        if (event == null) {
+            return CompletableFuture.completedFuture(CommandResult.notFound());
+        }
 
         if (event.isCancelled()) {
-            return new CommandResult<>(context);
+            return CompletableFuture.completedFuture(this.complete(event, null, Outcome.CANCELLED, start, new CommandResult<>(event.getContext())));
         }
 
-        try {
-            return new CommandResult<>(context, command.execute(context, message));
-        } catch (SyntaxErrorException e) {
-            this.listeners.values().forEach(listener -> listener.onSyntaxError(context));
-            return new CommandResult<>(context);
-        } catch (InvocationTargetException e) {
-            // If an exception is thrown within a command, it will be wrapped into an InvocationTargetException
-            // by the JDK. The real exception thrown within the command will be the cause.
-            Throwable cause = e.getCause();
+        ICommandInvocation invocation = this.prepare(registry, this.rateLimits, event, start);
+
+        if (invocation == null) {
+            return CompletableFuture.completedFuture(new CommandResult<>(event.getContext()));
+        }
+
+        if (invocation.isCompleted()) {
+            return CompletableFuture.completedFuture(this.invoke(registry, event, invocation, start));
+        }
+
+        return CompletableFuture.supplyAsync(() -> this.invoke(registry, event, invocation, start), executor);
+    }
+
+    /**
+     * Handle every provided message, executing the commands in parallel on the common {@link ForkJoinPool}.
+     *
+     * @param messages
+     *         A {@link Collection} of entries associating the object {@link T} emitting a command to the user input.
+     *
+     * @return A {@link List} of {@link ICommandResult}, in the same order as the provided messages.
+     *
+     * @see #handleAll(Collection, boolean, ForkJoinPool)
+     */
+    @Override
+    public @NotNull List<ICommandResult<T>> handleAll(@NotNull Collection<? extends Map.Entry<T, String>> messages) {
+
+        return this.handleAll(messages, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Handle every provided message, executing the commands in parallel on the provided {@link ForkJoinPool}. This is
+     * meant to replay large backlogs of messages.
+     * <p>
+     * The whole batch is resolved against the same {@link CommandRegistry} snapshot on the calling thread: the
+     * {@link ICommandListener#onContextCreated(ICommandContext)} and
+     * {@link ICommandListener#onCommandExecution(ICommandEvent)} listeners are called in input order before any
+     * command is executed. Only the syntax matching and the command bodies are executed on the {@link ForkJoinPool}.
+     *
+     * @param messages
+     *         A {@link Collection} of entries associating the object {@link T} emitting a command to the user input.
+     * @param keepEmitterOrder
+     *         True if the commands of a same emitter must be executed one after the other in input order, false if
+     *         every command may be executed in parallel.
+     * @param pool
+     *         The {@link ForkJoinPool} on which the commands are executed.
+     *
+     * @return A {@link List} of {@link ICommandResult}, in the same order as the provided messages.
+     */
+    public @NotNull List<ICommandResult<T>> handleAll(@NotNull Collection<? extends Map.Entry<T, String>> messages, boolean keepEmitterOrder, @NotNull ForkJoinPool pool) {
 
-            if (cause instanceof Exception) {
-                this.listeners.values().forEach(listener -> listener.onCommandException(event, (Exception) cause));
+        CommandRegistry<T>      registry = this.registry.get();
+        List<ICommandResult<T>> results  = new ArrayList<>(Collections.nCopies(messages.size(), null));
+        List<ICommandEvent<T>>  events   = new ArrayList<>(Collections.nCopies(messages.size(), null));
+        Map<T, List<Integer>>   groups   = new LinkedHashMap<>();
+        long[]                  starts   = new long[messages.size()];
+
+        int index = 0;
+        for (Map.Entry<T, String> message : messages) {
+            long             start = this.startTiming();
+            ICommandEvent<T> event;
+
+            try {
+                event = this.dispatch(registry, this.rateLimits, message.getKey(), message.getValue(), start, false, false);
+            } catch (RuntimeException | Error e) {
+                // The commands already dispatched will never be executed: their records must be completed.
+                for (int i = 0; i < index; i++) {
+                    if (events.get(i) != null) {
+                        this.complete(events.get(i), null, Outcome.CANCELLED, starts[i], null);
+                    }
+                }
+                throw e;
+            }
+
+            if (event == null) {
+                results.set(index, CommandResult.notFound());
+            } else if (event.isCancelled()) {
+                results.set(index, this.complete(event, null, Outcome.CANCELLED, start, new CommandResult<>(event.getContext())));
             } else {
-                this.listeners.values().forEach(listener -> listener.onCommandException(event, e));
+                starts[index] = start;
+                events.set(index, event);
+                // Without ordering constraint, each command is its own group.
+                T key = keepEmitterOrder ? message.getKey() : null;
+                groups.computeIfAbsent(key, k -> new ArrayList<>()).add(index);
+            }
+            index++;
+        }
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            if (keepEmitterOrder) {
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    for (int i : group) {
+                        results.set(i, this.execute(registry, events.get(i), starts[i]));
+                    }
+                }));
+            } else {
+                for (int i : group) {
+                    tasks.add(ForkJoinTask.adapt(() -> results.set(i, this.execute(registry, events.get(i), starts[i]))));
+                }
+            }
+        }
+
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        return results;
+    }
+
+    /**
+     * Warm up the handling of every registered command, running at least {@link #WARM_UP_MESSAGES} synthetic messages
+     * through the pipeline.
+     *
+     * @param emitter
+     *         The object {@link T} used as the emitter of the synthetic messages. It should not represent a real user.
+     *
+     * @see #warmUp(Object, int)
+     */
+    public void warmUp(@NotNull T emitter) {
+
+        int inputs = this.createWarmUpMessages(this.registry.get(), emitter).size();
+        this.warmUp(emitter, (WARM_UP_MESSAGES + inputs - 1) / inputs);
+    }
+
+    /**
+     * Warm up the handling of every registered command, so that the JIT compiler optimizes the hot paths before real
+     * messages are handled. Once done, {@link #isReady()} returns true.
+     * <p>
+     * For every syntax of every registered {@link CommandImpl}, a synthetic message is created using the prefix
+     * applicable to the provided emitter, the command label and a sample value for each variable and filler. Messages
+     * that are not commands are added as well. Each iteration handles every message through the same dispatch,
+     * preparation and invocation paths as {@link #handle(Object, String)}, in a mode without side effect:
+     * <ul>
+     *     <li>the command methods are never invoked: the {@link CommandImpl} rehearses its execution with a no-op
+     *     {@link MethodInvoker}, and other {@link ICommand}s are only dispatched,</li>
+     *     <li>a synthetic {@link ICommandContext} is used instead of calling {@link #createContext(Object)}, and the
+     *     {@link ICommandListener}s and {@link ICommandInterceptor}s are never called,</li>
+     *     <li>the syntaxes are matched without options: {@link ICommandMeta#getOptions(ICommandContext)} is never
+     *     called and the compiled syntaxes and results cached by the commands are left untouched,</li>
+     *     <li>the {@link ICommandMetrics} are not recorded,</li>
+     *     <li>the {@link RateLimit}s are not checked.</li>
+     * </ul>
+     * Messages of syntaxes relying on options may therefore not match, exercising the syntax error path. Methods with
+     * parameters that cannot be found in a synthetic context are matched, and fail to be bound.
+     *
+     * @param emitter
+     *         The object {@link T} used as the emitter of the synthetic messages. It should not represent a real user.
+     * @param iterations
+     *         The amount of times every synthetic message is handled.
+     */
+    public void warmUp(@NotNull T emitter, int iterations) {
+
+        CommandRegistry<T> registry = this.registry.get().withoutListeners();
+        List<String>       messages = this.createWarmUpMessages(registry, emitter);
+
+        for (int i = 0; i < iterations; i++) {
+            for (String message : messages) {
+                this.handle(registry, emitter, message, NOT_TIMED, false, true);
+            }
+        }
+        this.ready = true;
+    }
+
+    /**
+     * Check if {@link #warmUp(Object, int)} completed at least once, meaning that the hot paths of this
+     * {@link CommandHandler} have been exercised and traffic can be routed to it.
+     *
+     * @return True if this {@link CommandHandler} has been warmed up, false otherwise.
+     */
+    public boolean isReady() {
+
+        return this.ready;
+    }
+
+    private List<String> createWarmUpMessages(CommandRegistry<T> registry, T emitter) {
+
+        List<String> prefixes = this.getApplicablePrefixes(emitter);
+        String       prefix   = prefixes.isEmpty() ? "" : prefixes.get(0);
+        List<String> messages = new ArrayList<>();
+
+        messages.add("warm up");
+        messages.add(prefix + "warm-up-unknown-command");
+
+        for (ICommand<T> command : registry.getCommands().values()) {
+            String label = prefix + command.getMeta().getLabel();
+            messages.add(label);
+
+            if (command instanceof CommandImpl) {
+                for (MethodPlan method : CommandPlan.of(command.getClass()).getMethods()) {
+                    SyntaxPattern pattern = method.getPattern();
+                    messages.add(label + " " + (pattern == null ? method.getSyntax() : pattern.sample()));
+                }
+            }
+        }
+        return messages;
+    }
+
+    private ICommandResult<T> execute(CommandRegistry<T> registry, ICommandEvent<T> event, long start) {
+
+        ICommandInvocation invocation = this.prepare(registry, this.rateLimits, event, start);
+        return invocation == null ? new CommandResult<>(event.getContext()) : this.invoke(registry, event, invocation, start);
+    }
+
+    /**
+     * Read the clock if metrics are enabled.
+     *
+     * @return The current time in nanoseconds, or {@link #NOT_TIMED} if metrics are disabled.
+     */
+    private long startTiming() {
+
+        return this.metrics.isEnabled() ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Record the outcome of the handling of a message, if it has been timed.
+     *
+     * @return The provided {@link ICommandResult}.
+     */
+    private ICommandResult<T> complete(ICommandEvent<T> event, Method method, Outcome outcome, long start, ICommandResult<T> result) {
+
+        if (start != NOT_TIMED) {
+            this.metrics.recordCompleted(event.getCommand(), method, outcome, System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    /**
+     * Resolve the {@link ICommand} targeted by the provided message and, if any, create its {@link ICommandContext}
+     * and {@link ICommandEvent} while notifying the listeners.
+     *
+     * @return The {@link ICommandEvent}, or null if no command has been found.
+     */
+    private ICommandEvent<T> dispatch(CommandRegistry<T> registry, RateLimits rateLimits, T emitter, String message, long start, boolean recycle, boolean warmUp) {
+
+        ListenerChain<T> chain      = registry.getListenerChain();
+        ResolutionEvent  resolution = new ResolutionEvent();
+        resolution.begin();
+
+        // Most messages are not commands: reject them before allocating anything.
+        int begin = 0;
+        int end   = message.length();
+
+        while (begin < end && message.charAt(begin) <= ' ') {
+            begin++;
+        }
+        while (end > begin && message.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        List<String> prefixes = this.getApplicablePrefixes(emitter);
+        boolean      prefixed = false;
+        ICommand<T>  command  = null;
+
+        for (int i = 0; i < prefixes.size() && command == null; i++) {
+            String prefix = prefixes.get(i);
+
+            if (message.regionMatches(true, begin, prefix, 0, prefix.length())) {
+                prefixed = true;
+                command  = findCommand(registry, message, begin + prefix.length(), end);
+            }
+        }
+
+        resolution.end();
+        if (resolution.shouldCommit()) {
+            resolution.label   = command == null ? null : command.getMeta().getLabel();
+            resolution.outcome = command == null ? "NOT_FOUND" : "FOUND";
+            resolution.commit();
+        }
+
+        if (command == null) {
+            if (start != NOT_TIMED) {
+                this.metrics.recordNotFound();
+            }
+            if (prefixed || !this.ignoreUnprefixedMessages) {
+                this.notifyCommandNotFound(chain, emitter, message);
+            }
+            return null;
+        }
+
+        if (start == NOT_TIMED) {
+            return this.createEvent(chain, rateLimits, command, emitter, message, recycle, warmUp);
+        }
+
+        // Once started, the record must be completed even if a listener throws.
+        this.metrics.recordStarted(command);
+        try {
+            return this.createEvent(chain, rateLimits, command, emitter, message, recycle, warmUp);
+        } catch (RuntimeException | Error e) {
+            this.metrics.recordCompleted(command, null, Outcome.EXCEPTION, System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * Create the {@link ICommandContext} and {@link ICommandEvent} of the provided {@link ICommand}, checking its
+     * rate limits and notifying the listeners.
+     *
+     * @return The {@link ICommandEvent}, cancelled if the execution is rate limited or has been cancelled by a
+     *         listener.
+     */
+    private ICommandEvent<T> createEvent(ListenerChain<T> chain, RateLimits rateLimits, ICommand<T> command, T emitter, String message, boolean recycle, boolean warmUp) {
+
+        DispatchEvent dispatch = new DispatchEvent();
+        dispatch.begin();
+
+        ICommandInput      input   = new CommandInput(message);
+        ICommandContext<T> context = warmUp ? new CommandContext<>(emitter) : recycle ? this.acquireContext(emitter) : this.createContext(emitter);
+        for (ICommandListener<T> listener : chain.get(Callback.CONTEXT_CREATED)) {
+            listener.onContextCreated(context);
+        }
+
+        MatchedEvent<T> event = new MatchedEvent<>(context, this, command, emitter, input);
+
+        // The warm up must not consume any permit: the rate limits are not checked at all.
+        if (warmUp) {
+            event.warmUp = true;
+            commit(dispatch, event);
+            return event;
+        }
+
+        // Rate limited commands are refused before the listeners get a chance to act on their execution.
+        long retryAfter = rateLimits.tryAcquire(command, command.getClass(), this.getRateLimitKey(emitter));
+        if (retryAfter > 0) {
+            this.notifyRateLimited(chain, event, retryAfter);
+            event.setCancelled(true);
+            commit(dispatch, event);
+            return event;
+        }
+
+        // The same goes for rate limited methods, which requires matching the user input right away. The parameters
+        // are only bound once the listeners allowed the execution.
+        if (command instanceof CommandImpl && RateLimits.hasMethodLimits(command.getClass())) {
+            CommandImpl<T> impl = (CommandImpl<T>) command;
+
+            try {
+                event.match   = impl.match(context, input);
+                event.matched = true;
+            } catch (Exception e) {
+                // The matching will be done again while preparing the execution, reporting the failure.
+            }
+
+            if (event.match != null) {
+                retryAfter = rateLimits.tryAcquire(command, event.match.getMethod().getMethod(), this.getRateLimitKey(emitter));
+                if (retryAfter > 0) {
+                    this.notifyRateLimited(chain, event, retryAfter);
+                    event.setCancelled(true);
+                    commit(dispatch, event);
+                    return event;
+                }
+            }
+        }
+
+        for (ICommandListener<T> listener : chain.get(Callback.COMMAND_EXECUTION)) {
+            listener.onCommandExecution(event);
+        }
+        commit(dispatch, event);
+        return event;
+    }
+
+    /**
+     * Take the idle {@link CommandContext} of the current thread, or create a new context if there is none, which is
+     * the case when a command handles another message synchronously.
+     */
+    private ICommandContext<T> acquireContext(T emitter) {
+
+        CommandContext<T> context = this.idleContexts.get();
+        if (context == null) {
+            return this.createContext(emitter);
+        }
+
+        this.idleContexts.set(null);
+        context.reset(emitter);
+        return context;
+    }
+
+    private void releaseContext(ICommandContext<T> context) {
+
+        if (context instanceof CommandContext) {
+            //noinspection unchecked
+            CommandContext<T> recycled = (CommandContext<T>) context;
+            recycled.reset(null);
+            this.idleContexts.set(recycled);
+        }
+    }
+
+    private static void commit(DispatchEvent dispatch, ICommandEvent<?> event) {
+
+        dispatch.end();
+        if (dispatch.shouldCommit()) {
+            dispatch.label   = event.getCommand().getMeta().getLabel();
+            dispatch.outcome = event.isCancelled() ? "CANCELLED" : "DISPATCHED";
+            dispatch.commit();
+        }
+    }
+
+    /**
+     * Prepare the execution of the {@link ICommand} of the provided {@link ICommandEvent}.
+     *
+     * @return The {@link ICommandInvocation}, or null if the preparation failed or the matched method is rate limited,
+     *         and the listeners have been notified. While warming up, null is also returned for commands that cannot
+     *         rehearse their execution.
+     */
+    private ICommandInvocation prepare(CommandRegistry<T> registry, RateLimits rateLimits, ICommandEvent<T> event, long start) {
+
+        MatchedEvent<T>    matched = event instanceof MatchedEvent ? (MatchedEvent<T>) event : null;
+        ICommandInvocation invocation;
+
+        try {
+            if (matched != null && matched.warmUp) {
+                // Only the commands able to rehearse their execution are warmed up, and no rate limit is checked.
+                ICommand<T> command = event.getCommand();
+                return command instanceof CommandImpl ? ((CommandImpl<T>) command).rehearse(event.getContext(), event.getInput()) : null;
+            }
+
+            if (matched != null && matched.matched) {
+                // The user input has already been matched, and the rate limit of its method checked, while dispatching.
+                return ((CommandImpl<T>) event.getCommand()).prepare(event.getContext(), matched.match);
+            }
+
+            invocation = event.getCommand().prepare(event.getContext(), event.getInput());
+        } catch (Exception e) {
+            // The outcome is recorded first, as the listeners may throw.
+            this.complete(event, null, Outcome.EXCEPTION, start, null);
+            this.notifyCommandException(registry.getListenerChain(), event, e);
+            return null;
+        }
+
+        Method method = invocation.getMethod();
+        if (method != null) {
+            long retryAfter = rateLimits.tryAcquire(event.getCommand(), method, this.getRateLimitKey(event.getEmitter()));
+
+            if (retryAfter > 0) {
+                this.complete(event, method, Outcome.CANCELLED, start, null);
+                this.notifyRateLimited(registry.getListenerChain(), event, retryAfter);
+                return null;
+            }
+        }
+        return invocation;
+    }
+
+    /**
+     * Run the provided {@link ICommandInvocation} and convert its outcome into an {@link ICommandResult}, notifying
+     * the listeners of syntax errors and exceptions and recording the metrics.
+     */
+    private ICommandResult<T> invoke(CommandRegistry<T> registry, ICommandEvent<T> event, ICommandInvocation invocation, long start) {
+
+        ListenerChain<T>   chain     = registry.getListenerChain();
+        ICommandContext<T> context   = event.getContext();
+        Outcome            outcome   = Outcome.EXCEPTION;
+        ExecutionEvent     execution = new ExecutionEvent();
+        execution.begin();
+
+        try {
+            IExecutionResult result = chain.intercept(event, invocation).invoke();
+            execution.end();
+
+            switch (result.getStatus()) {
+                case SUCCESS:
+                    outcome = Outcome.SUCCESS;
+                    if (result.isCached()) {
+                        for (ICommandListener<T> listener : chain.get(Callback.CACHE_HIT)) {
+                            listener.onCacheHit(event);
+                        }
+                    }
+                    return new CommandResult<>(context, result.getResult());
+                case SYNTAX_ERROR:
+                    outcome = Outcome.SYNTAX_ERROR;
+                    for (ICommandListener<T> listener : chain.get(Callback.SYNTAX_ERROR)) {
+                        listener.onSyntaxError(context);
+                    }
+                    return new CommandResult<>(context);
+                default:
+                    outcome = Outcome.CANCELLED;
+                    return new CommandResult<>(context);
             }
-            return new CommandResult<>(context);
         } catch (Exception e) {
-            this.listeners.values().forEach(listener -> listener.onCommandException(event, e));
+            execution.end();
+            this.notifyCommandException(chain, event, e);
             return new CommandResult<>(context);
+        } finally {
+            // The event only covers the command body, not the listeners notified about its outcome.
+            if (execution.shouldCommit()) {
+                execution.label   = event.getCommand().getMeta().getLabel();
+                execution.outcome = outcome.name();
+                execution.setMethod(invocation.getMethod());
+                execution.commit();
+            }
+            this.complete(event, invocation.getMethod(), outcome, start, null);
+        }
+    }
+
+    private void notifyRateLimited(ListenerChain<T> chain, ICommandEvent<T> event, long retryAfter) {
+
+        ICommandListener<T>[] listeners = chain.get(Callback.RATE_LIMITED);
+        if (listeners.length == 0) {
+            return;
+        }
+
+        Duration duration = Duration.ofNanos(retryAfter);
+        for (ICommandListener<T> listener : listeners) {
+            listener.onRateLimited(event, duration);
+        }
+    }
+
+    /**
+     * Retrieve the key identifying the provided emitter for {@link RateLimit} purposes. By default, the emitter itself
+     * is used: override this method when distinct emitter instances can represent the same user.
+     *
+     * @param emitter
+     *         The object {@link T} emitting a command.
+     *
+     * @return The key of the emitter.
+     */
+    protected @NotNull Object getRateLimitKey(@NotNull T emitter) {
+
+        return emitter;
+    }
+
+    /**
+     * Retrieve the {@link RateLimits} of this {@link CommandHandler}, holding the bucket of every rate limited emitter.
+     *
+     * @return The {@link RateLimits}.
+     */
+    public @NotNull RateLimits getRateLimits() {
+
+        return this.rateLimits;
+    }
+
+    private void notifyCommandException(ListenerChain<T> chain, ICommandEvent<T> event, Exception e) {
+
+        Exception exception = e;
+
+        // ICommand implementations relying on Method#invoke will have their exceptions wrapped into an
+        // InvocationTargetException by the JDK. The real exception thrown within the command will be the cause.
+        if (e instanceof InvocationTargetException && e.getCause() instanceof Exception) {
+            exception = (Exception) e.getCause();
+        }
+
+        for (ICommandListener<T> listener : chain.get(Callback.COMMAND_EXCEPTION)) {
+            listener.onCommandException(event, exception);
+        }
+    }
+
+    private static <T> ICommand<T> findCommand(CommandRegistry<T> registry, String message, int labelStart, int end) {
+
+        int labelEnd = labelStart;
+        while (labelEnd < end && message.charAt(labelEnd) != ' ') {
+            labelEnd++;
+        }
+        return labelStart == labelEnd ? null : registry.getCommand(message, labelStart, labelEnd);
+    }
+
+    private void notifyCommandNotFound(ListenerChain<T> chain, T emitter, String message) {
+
+        for (ICommandListener<T> listener : chain.get(Callback.COMMAND_NOT_FOUND)) {
+            listener.onCommandNotFound(this, emitter, message);
+        }
+    }
+
+    /**
+     * Check if messages not starting with the prefix applicable to their emitter are silently ignored.
+     *
+     * @return True if {@link ICommandListener#onCommandNotFound(ICommandHandler, Object, String)} is not called for
+     *         messages without prefix, false otherwise.
+     */
+    public boolean isIgnoringUnprefixedMessages() {
+
+        return this.ignoreUnprefixedMessages;
+    }
+
+    /**
+     * Define if messages not starting with the prefix applicable to their emitter should be silently ignored. This is
+     * useful when every message received is given to this {@link CommandHandler}, as most of them will not be
+     * commands. Defaults to false.
+     *
+     * @param ignoreUnprefixedMessages
+     *         True if {@link ICommandListener#onCommandNotFound(ICommandHandler, Object, String)} should not be called
+     *         for messages without prefix, false otherwise.
+     */
+    public void setIgnoreUnprefixedMessages(boolean ignoreUnprefixedMessages) {
+
+        this.ignoreUnprefixedMessages = ignoreUnprefixedMessages;
+    }
+
+    /**
+     * Check if the {@link ICommandContext} created by {@link #handle(Object, String)} are recycled.
+     *
+     * @return True if each thread reuses the same {@link CommandContext}, false otherwise.
+     */
+    public boolean isRecyclingContexts() {
+
+        return this.recycleContexts;
+    }
+
+    /**
+     * Define if the {@link ICommandContext} created by {@link #handle(Object, String)} should be recycled: each thread
+     * then reuses the same {@link CommandContext} instead of allocating one per message. Defaults to false.
+     * <p>
+     * A recycled context is cleared as soon as {@link #handle(Object, String)} returns: neither the listeners nor the
+     * caller may keep a reference to it, including through {@link ICommandResult#getContext()}. The asynchronous and
+     * batch handling methods never recycle their contexts.
+     *
+     * @param recycleContexts
+     *         True if the contexts should be recycled, false otherwise.
+     *
+     * @throws IllegalStateException
+     *         Threw if {@link #createContext(Object)} is overridden, as its contexts could not be reused.
+     */
+    public void setRecycleContexts(boolean recycleContexts) {
+
+        if (recycleContexts && this.overridesCreateContext()) {
+            throw new IllegalStateException("Contexts cannot be recycled when createContext is overridden.");
+        }
+        this.recycleContexts = recycleContexts;
+    }
+
+    private boolean overridesCreateContext() {
+
+        try {
+            return this.getClass().getMethod("createContext", Object.class).getDeclaringClass() != CommandHandler.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Retrieve the {@link Executor} used by {@link #handleAsync(Object, String)} to run the commands.
+     *
+     * @return An {@link Executor}.
+     */
+    public @NotNull Executor getExecutor() {
+
+        return this.executor;
+    }
+
+    /**
+     * Define the {@link Executor} used by {@link #handleAsync(Object, String)} to run the commands. Defaults to the
+     * common {@link ForkJoinPool}. If virtual threads were enabled, the virtual thread executor created by this
+     * {@link CommandHandler} is shut down, letting the commands already submitted complete.
+     *
+     * @param executor
+     *         The {@link Executor} to use.
+     */
+    public synchronized void setExecutor(@NotNull Executor executor) {
+
+        if (this.virtualThreadExecutor != null && this.virtualThreadExecutor != executor) {
+            this.virtualThreadExecutor.shutdown();
+            this.virtualThreadExecutor = null;
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Run each command handled by {@link #handleAsync(Object, String)} on its own virtual thread, if supported by the
+     * running JDK. Otherwise, the current {@link Executor} is kept. Calling this method again once virtual threads are
+     * enabled does nothing.
+     *
+     * @return True if virtual threads will be used, false otherwise.
+     */
+    public synchronized boolean enableVirtualThreads() {
+
+        if (this.virtualThreadExecutor != null) {
+            return true;
+        }
+
+        if (!VirtualThreads.isSupported()) {
+            return false;
         }
+
+        this.virtualThreadExecutor = VirtualThreads.newPerTaskExecutor();
+        this.executor              = this.virtualThreadExecutor;
+        return true;
+    }
+
+    /**
+     * Retrieve the {@link ICommandMetrics} recording the outcome and latency of every handled message.
+     *
+     * @return An {@link ICommandMetrics}.
+     */
+    public @NotNull ICommandMetrics getMetrics() {
+
+        return this.metrics;
+    }
+
+    /**
+     * Define the {@link ICommandMetrics} recording the outcome and latency of every handled message. Defaults to
+     * {@link ICommandMetrics#noop()}, which does not even read the clock. Use a
+     * {@link fr.alexpado.commandr.impl.metrics.CommandMetrics} to record metrics. Messages being handled while the
+     * metrics are replaced may not be recorded.
+     *
+     * @param metrics
+     *         The {@link ICommandMetrics} to use.
+     */
+    public void setMetrics(@NotNull ICommandMetrics metrics) {
+
+        this.metrics = metrics;
     }
 
     /**
@@ -144,11 +1127,7 @@ public abstract class CommandHandler<T> implements ICommandHandler<T> {
     @Override
     public void addEventListener(@NotNull ICommandListener<T> listener) {
 
-        int hashCode = listener.hashCode();
-        if (this.listeners.containsKey(hashCode)) {
-            throw new IllegalStateException("Tried to register an already registered listener.");
-        }
-        this.listeners.put(hashCode, listener);
+        this.updateRegistry(registry -> registry.withListener(listener));
     }
 
     /**
@@ -160,10 +1139,51 @@ public abstract class CommandHandler<T> implements ICommandHandler<T> {
     @Override
     public void removeEventListener(@NotNull ICommandListener<T> listener) {
 
-        int hashCode = listener.hashCode();
-        if (!this.listeners.containsKey(hashCode)) {
-            throw new IllegalStateException("Tried to unregister an unregistered listener.");
+        this.updateRegistry(registry -> registry.withoutListener(listener));
+    }
+
+    /**
+     * Register the provided {@link ICommandInterceptor} within this {@link CommandHandler}. It wraps the execution of
+     * every command, inside the interceptors already registered.
+     *
+     * @param interceptor
+     *         The {@link ICommandInterceptor} to register.
+     *
+     * @throws IllegalStateException
+     *         Threw if the {@link ICommandInterceptor} is already registered.
+     */
+    public void addInterceptor(@NotNull ICommandInterceptor<T> interceptor) {
+
+        this.updateRegistry(registry -> registry.withInterceptor(interceptor));
+    }
+
+    /**
+     * Remove the provided {@link ICommandInterceptor} from this {@link CommandHandler}.
+     *
+     * @param interceptor
+     *         The {@link ICommandInterceptor} to unregister.
+     *
+     * @throws IllegalStateException
+     *         Threw if the {@link ICommandInterceptor} is not registered.
+     */
+    public void removeInterceptor(@NotNull ICommandInterceptor<T> interceptor) {
+
+        this.updateRegistry(registry -> registry.withoutInterceptor(interceptor));
+    }
+
+    /**
+     * {@link CommandEvent} keeping the {@link SyntaxMatch} of the user input found while dispatching the event, if any,
+     * and whether the event is only part of a warm up.
+     */
+    private static final class MatchedEvent<T> extends CommandEvent<T> {
+
+        private SyntaxMatch match;
+        private boolean     matched;
+        private boolean     warmUp;
+
+        private MatchedEvent(ICommandContext<T> context, ICommandHandler<T> handler, ICommand<T> command, T emitter, ICommandInput input) {
+
+            super(context, handler, command, emitter, input);
         }
-        this.listeners.remove(hashCode);
     }
 }
@@ -0,0 +1,343 @@
+package fr.alexpado.commandr;
+
+import fr.alexpado.commandr.impl.ListenerChain;
+import fr.alexpado.commandr.interfaces.ICommandListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded ingestion queue in front of a {@link CommandHandler}. Messages are submitted with
+ * {@link #submit(Object, String)} and handled by a fixed amount of worker threads. When the queue is full, messages are
+ * shed according to the {@link OverloadPolicy} and reported through
+ * {@link ICommandListener#onOverload(fr.alexpado.commandr.interfaces.ICommandHandler, Object, String)}, instead of
+ * letting the latency grow without limit.
+ *
+ * @param <T>
+ *         The type of the {@link fr.alexpado.commandr.interfaces.ICommand} emitter.
+ */
+public class CommandQueue<T> implements AutoCloseable {
+
+    private final CommandHandler<T>             handler;
+    private final BlockingQueue<Entry<T>>       queue;
+    private final OverloadPolicy                policy;
+    private final int                           emitterLimit;
+    private final ConcurrentHashMap<T, Integer> pending;
+    private final Thread[]                      workers;
+
+    private final LongAdder  shed;
+    private final LongAdder  handled;
+    private final LongAdder  failed;
+    private final LongAdder  waitTime;
+    private final AtomicLong maxWaitTime;
+
+    private volatile boolean running;
+
+    /**
+     * Create and start a new {@link CommandQueue}. With {@link OverloadPolicy#REJECT_BY_EMITTER}, an emitter may have
+     * up to a quarter of the capacity waiting in the queue.
+     *
+     * @param handler
+     *         The {@link CommandHandler} handling the messages.
+     * @param capacity
+     *         The maximum amount of messages waiting in the queue.
+     * @param workers
+     *         The amount of threads handling the messages.
+     * @param policy
+     *         The {@link OverloadPolicy} applied when the queue is full.
+     */
+    public CommandQueue(@NotNull CommandHandler<T> handler, int capacity, int workers, @NotNull OverloadPolicy policy) {
+
+        this(handler, capacity, workers, policy, Math.max(1, capacity / 4));
+    }
+
+    /**
+     * Create and start a new {@link CommandQueue}.
+     *
+     * @param handler
+     *         The {@link CommandHandler} handling the messages.
+     * @param capacity
+     *         The maximum amount of messages waiting in the queue.
+     * @param workers
+     *         The amount of threads handling the messages.
+     * @param policy
+     *         The {@link OverloadPolicy} applied when the queue is full.
+     * @param emitterLimit
+     *         The maximum amount of messages an emitter may have waiting in the queue. Only used with
+     *         {@link OverloadPolicy#REJECT_BY_EMITTER}.
+     */
+    public CommandQueue(@NotNull CommandHandler<T> handler, int capacity, int workers, @NotNull OverloadPolicy policy, int emitterLimit) {
+
+        if (capacity < 1 || workers < 1 || emitterLimit < 1) {
+            throw new IllegalArgumentException("The capacity, workers and emitter limit must be positive.");
+        }
+
+        this.handler      = handler;
+        this.queue        = new ArrayBlockingQueue<>(capacity);
+        this.policy       = policy;
+        this.emitterLimit = emitterLimit;
+        this.pending      = new ConcurrentHashMap<>();
+        this.workers      = new Thread[workers];
+        this.shed         = new LongAdder();
+        this.handled      = new LongAdder();
+        this.failed       = new LongAdder();
+        this.waitTime     = new LongAdder();
+        this.maxWaitTime  = new AtomicLong();
+        this.running      = true;
+
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = new Thread(this::work, "commandr-worker-" + i);
+            this.workers[i].setDaemon(true);
+            this.workers[i].start();
+        }
+    }
+
+    /**
+     * Submit the provided message to be handled by a worker of this {@link CommandQueue}. This method never blocks.
+     *
+     * @param emitter
+     *         The object {@link T} emitting a command.
+     * @param message
+     *         The user input corresponding to a command.
+     *
+     * @return True if the message has been queued, false if it has been shed. With {@link OverloadPolicy#DROP_OLDEST},
+     *         an older message may have been shed instead.
+     *
+     * @throws IllegalStateException
+     *         Threw if this {@link CommandQueue} has been closed.
+     */
+    public boolean submit(@NotNull T emitter, @NotNull String message) {
+
+        if (!this.running) {
+            throw new IllegalStateException("Tried to submit a message to a closed CommandQueue.");
+        }
+
+        Entry<T> entry = new Entry<>(emitter, message, System.nanoTime());
+
+        switch (this.policy) {
+            case DROP_OLDEST:
+                while (!this.queue.offer(entry)) {
+                    Entry<T> oldest = this.queue.poll();
+                    if (oldest != null) {
+                        this.shed(oldest);
+                    }
+                }
+                return true;
+            case REJECT_BY_EMITTER:
+                if (!this.acquire(emitter)) {
+                    this.shed(entry);
+                    return false;
+                }
+                if (!this.queue.offer(entry)) {
+                    this.release(emitter);
+                    this.shed(entry);
+                    return false;
+                }
+                return true;
+            default:
+                if (!this.queue.offer(entry)) {
+                    this.shed(entry);
+                    return false;
+                }
+                return true;
+        }
+    }
+
+    private boolean acquire(T emitter) {
+
+        boolean[] acquired = new boolean[1];
+
+        this.pending.compute(emitter, (key, count) -> {
+            int current = count == null ? 0 : count;
+            acquired[0] = current < this.emitterLimit;
+            return acquired[0] ? current + 1 : count;
+        });
+
+        return acquired[0];
+    }
+
+    private void release(T emitter) {
+
+        this.pending.computeIfPresent(emitter, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    private void shed(Entry<T> entry) {
+
+        this.shed.increment();
+        for (ICommandListener<T> listener : this.handler.getRegistry().getListenerChain().get(ListenerChain.Callback.OVERLOAD)) {
+            listener.onOverload(this.handler, entry.emitter, entry.message);
+        }
+    }
+
+    private void work() {
+
+        while (this.running) {
+            Entry<T> entry;
+
+            try {
+                entry = this.queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            if (entry == null) {
+                continue;
+            }
+
+            if (this.policy == OverloadPolicy.REJECT_BY_EMITTER) {
+                this.release(entry.emitter);
+            }
+
+            long wait = System.nanoTime() - entry.submittedAt;
+            this.waitTime.add(wait);
+            this.maxWaitTime.accumulateAndGet(wait, Math::max);
+
+            try {
+                this.handler.handle(entry.emitter, entry.message);
+            } catch (Throwable e) {
+                // Exceptions thrown by commands are already reported to the listeners: only a failing listener or
+                // handler can reach this point, and it must not kill the worker.
+                this.failed.increment();
+                Thread worker = Thread.currentThread();
+                worker.getUncaughtExceptionHandler().uncaughtException(worker, e);
+            } finally {
+                this.handled.increment();
+            }
+        }
+    }
+
+    /**
+     * Retrieve the amount of messages currently waiting in this {@link CommandQueue}.
+     *
+     * @return The queue depth.
+     */
+    public int getQueueDepth() {
+
+        return this.queue.size();
+    }
+
+    /**
+     * Retrieve the amount of messages shed since this {@link CommandQueue} has been created.
+     *
+     * @return The shed count.
+     */
+    public long getShedCount() {
+
+        return this.shed.sum();
+    }
+
+    /**
+     * Define the {@link Thread.UncaughtExceptionHandler} receiving every {@link Throwable} thrown while a worker of this
+     * {@link CommandQueue} was handling a message, typically by a failing {@link ICommandListener}. The worker keeps
+     * running afterwards. By default, the {@link Throwable} is reported like any uncaught exception.
+     *
+     * @param exceptionHandler
+     *         The {@link Thread.UncaughtExceptionHandler} to use.
+     */
+    public void setFailureHandler(@NotNull Thread.UncaughtExceptionHandler exceptionHandler) {
+
+        for (Thread worker : this.workers) {
+            worker.setUncaughtExceptionHandler(exceptionHandler);
+        }
+    }
+
+    /**
+     * Retrieve the amount of messages handled since this {@link CommandQueue} has been created.
+     *
+     * @return The handled count.
+     */
+    public long getHandledCount() {
+
+        return this.handled.sum();
+    }
+
+    /**
+     * Retrieve the amount of messages whose handling failed with an uncaught {@link Throwable} since this
+     * {@link CommandQueue} has been created. Failed messages are also counted as handled.
+     *
+     * @return The failed count.
+     */
+    public long getFailedCount() {
+
+        return this.failed.sum();
+    }
+
+    /**
+     * Retrieve the average time messages spent waiting in this {@link CommandQueue} before being handled.
+     *
+     * @param unit
+     *         The {@link TimeUnit} of the returned value.
+     *
+     * @return The average wait time.
+     */
+    public long getAverageWaitTime(@NotNull TimeUnit unit) {
+
+        long count = this.handled.sum();
+        return count == 0 ? 0 : unit.convert(this.waitTime.sum() / count, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Retrieve the longest time a message spent waiting in this {@link CommandQueue} before being handled.
+     *
+     * @param unit
+     *         The {@link TimeUnit} of the returned value.
+     *
+     * @return The maximum wait time.
+     */
+    public long getMaxWaitTime(@NotNull TimeUnit unit) {
+
+        return unit.convert(this.maxWaitTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stop the workers of this {@link CommandQueue}. Messages still waiting in the queue are discarded without being
+     * reported as shed.
+     */
+    @Override
+    public void close() {
+
+        this.running = false;
+        for (Thread worker : this.workers) {
+            worker.interrupt();
+        }
+        this.queue.clear();
+    }
+
+    /**
+     * Policies applied when a message is submitted to a full {@link CommandQueue}.
+     */
+    public enum OverloadPolicy {
+        /**
+         * The submitted message is shed.
+         */
+        DROP_NEWEST,
+        /**
+         * The oldest waiting message is shed to make room for the submitted message, favoring fresh messages.
+         */
+        DROP_OLDEST,
+        /**
+         * Each emitter may only have a limited amount of messages waiting, so that a single emitter flooding the queue
+         * only sheds its own messages. When the queue is still full, the submitted message is shed.
+         */
+        REJECT_BY_EMITTER
+    }
+
+    private static final class Entry<T> {
+
+        private final T      emitter;
+        private final String message;
+        private final long   submittedAt;
+
+        Entry(T emitter, String message, long submittedAt) {
+
+            this.emitter     = emitter;
+            this.message     = message;
+            this.submittedAt = submittedAt;
+        }
+    }
+}
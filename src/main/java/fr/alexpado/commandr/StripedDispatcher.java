@@ -0,0 +1,223 @@
+package fr.alexpado.commandr;
+
+import fr.alexpado.commandr.interfaces.ICommandHandler;
+import fr.alexpado.commandr.interfaces.ICommandResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Dispatch messages to an {@link ICommandHandler} so that messages sharing the same key (the same user, channel, ...)
+ * are handled one after the other in arrival order, while messages with different keys are handled in parallel.
+ * <p>
+ * Keys are spread over a fixed number of stripes. Each stripe is a queue drained by at most one task of the shared
+ * {@link Executor} at a time: no lock is involved and no thread is dedicated to a key. As two keys may share the same
+ * stripe, a slow command can delay the messages of other keys of its stripe; the number of stripes should be chosen
+ * accordingly using {@link #getQueueDepth(int)} and {@link #getPeakQueueDepth(int)}.
+ * <p>
+ * The {@link Executor} must not reject tasks, otherwise the messages of the stripe would never be handled.
+ *
+ * @param <T>
+ *         The type of the {@link fr.alexpado.commandr.interfaces.ICommand} emitter.
+ */
+public class StripedDispatcher<T> {
+
+    /**
+     * Amount of messages a stripe handles before giving its thread back to the {@link Executor}, so that busy stripes
+     * do not starve the others.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    private final ICommandHandler<T>     handler;
+    private final Function<? super T, ?> keyFunction;
+    private final Stripe[]               stripes;
+
+    /**
+     * Create a new {@link StripedDispatcher} using the common {@link ForkJoinPool} and four stripes per available
+     * processor.
+     *
+     * @param handler
+     *         The {@link ICommandHandler} handling the messages.
+     * @param keyFunction
+     *         The function returning the key of an emitter. Messages whose emitters have equal keys are handled in
+     *         order.
+     */
+    public StripedDispatcher(@NotNull ICommandHandler<T> handler, @NotNull Function<? super T, ?> keyFunction) {
+
+        this(handler, keyFunction, Runtime.getRuntime().availableProcessors() * 4, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new {@link StripedDispatcher}.
+     *
+     * @param handler
+     *         The {@link ICommandHandler} handling the messages.
+     * @param keyFunction
+     *         The function returning the key of an emitter. Messages whose emitters have equal keys are handled in
+     *         order.
+     * @param stripes
+     *         The amount of stripes, rounded up to the next power of two.
+     * @param executor
+     *         The {@link Executor} on which the messages are handled.
+     */
+    public StripedDispatcher(@NotNull ICommandHandler<T> handler, @NotNull Function<? super T, ?> keyFunction, int stripes, @NotNull Executor executor) {
+
+        if (stripes < 1) {
+            throw new IllegalArgumentException("A StripedDispatcher requires at least one stripe.");
+        }
+
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+
+        this.handler     = handler;
+        this.keyFunction = keyFunction;
+        this.stripes     = new Stripe[size];
+
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe(executor);
+        }
+    }
+
+    /**
+     * Queue the provided message to be handled after every message previously dispatched with the same key.
+     *
+     * @param emitter
+     *         The object {@link T} emitting a command.
+     * @param message
+     *         The user input corresponding to a command.
+     *
+     * @return A {@link CompletableFuture} completed with the {@link ICommandResult} of the command, or completed
+     *         exceptionally if {@link ICommandHandler#handle(Object, String)} threw.
+     */
+    public @NotNull CompletableFuture<ICommandResult<T>> dispatch(@NotNull T emitter, @NotNull String message) {
+
+        CompletableFuture<ICommandResult<T>> future = new CompletableFuture<>();
+
+        this.stripes[this.getStripe(emitter)].enqueue(() -> {
+            try {
+                future.complete(this.handler.handle(emitter, message));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Retrieve the index of the stripe handling the messages of the provided emitter.
+     *
+     * @param emitter
+     *         The object {@link T} emitting a command.
+     *
+     * @return The index of the stripe.
+     */
+    public int getStripe(@NotNull T emitter) {
+
+        int hash = Objects.hashCode(this.keyFunction.apply(emitter));
+        // Spread the high bits, as only the low bits are used to select the stripe.
+        hash ^= hash >>> 16;
+        return hash & (this.stripes.length - 1);
+    }
+
+    /**
+     * Retrieve the amount of stripes of this {@link StripedDispatcher}.
+     *
+     * @return The amount of stripes.
+     */
+    public int getStripeCount() {
+
+        return this.stripes.length;
+    }
+
+    /**
+     * Retrieve the amount of messages waiting or being handled in the provided stripe.
+     *
+     * @param stripe
+     *         The index of the stripe.
+     *
+     * @return The current queue depth of the stripe.
+     */
+    public int getQueueDepth(int stripe) {
+
+        return this.stripes[stripe].depth.get();
+    }
+
+    /**
+     * Retrieve the highest queue depth reached by the provided stripe.
+     *
+     * @param stripe
+     *         The index of the stripe.
+     *
+     * @return The peak queue depth of the stripe.
+     */
+    public int getPeakQueueDepth(int stripe) {
+
+        return this.stripes[stripe].peak.get();
+    }
+
+    /**
+     * Retrieve the current queue depth of every stripe.
+     *
+     * @return An array containing the queue depth of each stripe, by index.
+     */
+    public @NotNull int[] getQueueDepths() {
+
+        int[] depths = new int[this.stripes.length];
+        for (int i = 0; i < depths.length; i++) {
+            depths[i] = this.stripes[i].depth.get();
+        }
+        return depths;
+    }
+
+    private static final class Stripe {
+
+        private final Executor        executor;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger   depth = new AtomicInteger();
+        private final AtomicInteger   peak  = new AtomicInteger();
+
+        Stripe(Executor executor) {
+
+            this.executor = executor;
+        }
+
+        void enqueue(Runnable task) {
+
+            // The task must be visible in the queue before the depth announces it to the draining thread.
+            this.queue.offer(task);
+            int depth = this.depth.incrementAndGet();
+            this.peak.accumulateAndGet(depth, Math::max);
+
+            // Only the message making the stripe non-empty schedules the drain: the stripe is then owned by that task
+            // until its depth falls back to zero.
+            if (depth == 1) {
+                this.executor.execute(this::drain);
+            }
+        }
+
+        void drain() {
+
+            int handled = 0;
+
+            do {
+                this.queue.poll().run();
+
+                if (++handled >= BATCH_SIZE && this.depth.get() > 1) {
+                    this.depth.decrementAndGet();
+                    this.executor.execute(this::drain);
+                    return;
+                }
+            } while (this.depth.decrementAndGet() > 0);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package fr.alexpado.commandr.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Annotation allowing to cache the value returned by a method annotated with {@link Command}. The cache is keyed by
+ * the values of the parameters annotated with {@link Param}: other parameters, such as the
+ * {@link fr.alexpado.commandr.interfaces.ICommandContext}, are not taken into account. When a cached value is
+ * available, the method is not invoked at all.
+ * <p>
+ * This should only be used on methods returning the same value for the same user input, and without side effects.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cacheable {
+
+    /**
+     * The maximum amount of values kept in the cache. When exceeded, the least recently used value is evicted.
+     *
+     * @return The cache size.
+     */
+    int maxSize() default 256;
+
+    /**
+     * The time after which a cached value expires, expressed in {@link #unit()}. Zero or less means that values never
+     * expire.
+     *
+     * @return The time to live of a cached value.
+     */
+    long ttl() default 0;
+
+    /**
+     * The {@link TimeUnit} of the {@link #ttl()}.
+     *
+     * @return A {@link TimeUnit}
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * Define if the cached values are specific to each emitter, or shared between every emitter.
+     *
+     * @return True if each emitter has its own cached values, false otherwise.
+     */
+    boolean perEmitter() default false;
+
+}
@@ -0,0 +1,44 @@
+package fr.alexpado.commandr.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Annotation limiting how often each emitter can execute a command. When used on an
+ * {@link fr.alexpado.commandr.interfaces.ICommand} class, the limit applies to the whole command and is checked before
+ * any listener is notified of the execution. When used on a {@link Command} method, the limit only applies to that
+ * method: the user input of such commands is matched as soon as the command is found, so that the limit is checked
+ * before any listener is notified of the execution as well.
+ * <p>
+ * Each emitter is allowed a burst of {@link #permits()} executions, regained progressively over {@link #period()}. A
+ * cooldown is a {@link RateLimit} with a single permit.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface RateLimit {
+
+    /**
+     * The amount of executions allowed within a {@link #period()}.
+     *
+     * @return The amount of permits.
+     */
+    int permits() default 1;
+
+    /**
+     * The time needed to regain every permit, expressed in {@link #unit()}.
+     *
+     * @return The period.
+     */
+    long period();
+
+    /**
+     * The {@link TimeUnit} of the {@link #period()}.
+     *
+     * @return A {@link TimeUnit}
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+}
@@ -2,7 +2,13 @@ package fr.alexpado.commandr.exceptions;
 
 /**
  * Exception existing for the sole purpose of allowing to differentiate it from other exceptions.
+ * <p>
+ * As this exception is only used as a signal, it does not capture any stack trace.
  */
 public class SyntaxErrorException extends Exception {
 
+    public SyntaxErrorException() {
+
+        super(null, null, false, false);
+    }
 }
@@ -5,18 +5,42 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+/**
+ * Default {@link ICommandContext} implementation.
+ * <p>
+ * Every class is given a slot index the first time it is registered in any context, and instances are stored in an
+ * array indexed by these slots: registering and retrieving an instance does not hash anything, and a context in which
+ * nothing is registered does not allocate any storage. Looking up a class that has never been registered does not
+ * assign it a slot, so the size of the arrays only depends on the classes actually registered.
+ *
+ * @param <T> The type of the {@link fr.alexpado.commandr.interfaces.ICommand} emitter.
+ */
 public class CommandContext<T> implements ICommandContext<T> {
 
-    private final Map<Class<?>, Object> classRegister;
-    private final T                     emitter;
+    private static final Object[]      EMPTY      = new Object[0];
+    private static final Object        NULL       = new Object();
+    private static final AtomicInteger SLOT_COUNT = new AtomicInteger();
+
+    private static final ClassValue<Slot> SLOTS = new ClassValue<>() {
+
+        @Override
+        protected Slot computeValue(@NotNull Class<?> type) {
+
+            return new Slot();
+        }
+    };
+
+    private Object[] values;
+    private T        emitter;
 
     public CommandContext(T emitter) {
 
-        this.emitter       = emitter;
-        this.classRegister = new HashMap<>();
+        this.emitter = emitter;
+        this.values  = EMPTY;
     }
 
     /**
@@ -31,7 +55,20 @@ public class CommandContext<T> implements ICommandContext<T> {
     @Override
     public <C> void registerClass(@NotNull Class<C> clazz, C instance) {
 
-        this.classRegister.put(clazz, instance);
+        this.store(clazz, instance == null ? NULL : instance);
+    }
+
+    /**
+     * Associate the class {@code C} to the instance created by the provided {@link Supplier}. The {@link Supplier} is
+     * only called the first time the instance is retrieved, typically when a method parameter requires it.
+     *
+     * @param clazz    The class to associate
+     * @param supplier The {@link Supplier} creating the instance of this class
+     */
+    @Override
+    public <C> void registerLazyClass(@NotNull Class<C> clazz, @NotNull Supplier<? extends C> supplier) {
+
+        this.store(clazz, new Lazy(supplier));
     }
 
     /**
@@ -43,12 +80,25 @@ public class CommandContext<T> implements ICommandContext<T> {
      */
     @Override
     public <C> @Nullable C getRegisteredClass(@NotNull Class<C> clazz) {
-        //noinspection unchecked
-        return (C) this.classRegister.get(clazz);
+
+        int slot = SLOTS.get(clazz).index;
+        if (slot < 0 || slot >= this.values.length) {
+            return null;
+        }
+
+        Object value = this.values[slot];
+        if (value instanceof Lazy) {
+            value = ((Lazy) value).supplier.get();
+            this.values[slot] = value == null ? NULL : value;
+        }
+        @SuppressWarnings("unchecked")
+        C instance = value == NULL ? null : (C) value;
+        return instance;
     }
 
     /**
-     * Check if the provided class has been registered within this {@link ICommandContext}.
+     * Check if the provided class has been registered within this {@link ICommandContext}. A class registered with a
+     * {@link Supplier} is considered registered, even if its instance has not been created yet.
      *
      * @param clazz The class to check.
      *
@@ -56,7 +106,9 @@ public class CommandContext<T> implements ICommandContext<T> {
      */
     @Override
     public <C> boolean hasClass(Class<C> clazz) {
-        return this.classRegister.containsKey(clazz);
+
+        int slot = SLOTS.get(clazz).index;
+        return slot >= 0 && slot < this.values.length && this.values[slot] != null;
     }
 
     /**
@@ -68,4 +120,62 @@ public class CommandContext<T> implements ICommandContext<T> {
     public @NotNull T getEmitter() {
         return this.emitter;
     }
+
+    /**
+     * Forget every registered class and change the emitter of this {@link CommandContext}, so that it can be reused
+     * for another message without allocating a new context.
+     *
+     * @param emitter The new emitter, or null when the context is released.
+     */
+    public void reset(@Nullable T emitter) {
+
+        Arrays.fill(this.values, null);
+        this.emitter = emitter;
+    }
+
+    private void store(Class<?> clazz, Object value) {
+
+        int slot = SLOTS.get(clazz).assign();
+        if (slot >= this.values.length) {
+            // Contexts are usually filled with the same classes: make room for every registered class at once.
+            this.values = Arrays.copyOf(this.values, Math.max(slot + 1, SLOT_COUNT.get()));
+        }
+        this.values[slot] = value;
+    }
+
+    /**
+     * Slot index of a class, assigned the first time the class is registered.
+     */
+    private static final class Slot {
+
+        private volatile int index = -1;
+
+        private int assign() {
+
+            int index = this.index;
+            if (index < 0) {
+                synchronized (this) {
+                    index = this.index;
+                    if (index < 0) {
+                        index      = SLOT_COUNT.getAndIncrement();
+                        this.index = index;
+                    }
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Instance registered with a {@link Supplier}, created on its first retrieval.
+     */
+    private static final class Lazy {
+
+        private final Supplier<?> supplier;
+
+        private Lazy(Supplier<?> supplier) {
+
+            this.supplier = supplier;
+        }
+    }
 }
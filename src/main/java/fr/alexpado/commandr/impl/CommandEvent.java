@@ -4,6 +4,7 @@ import fr.alexpado.commandr.interfaces.ICommand;
 import fr.alexpado.commandr.interfaces.ICommandContext;
 import fr.alexpado.commandr.interfaces.ICommandEvent;
 import fr.alexpado.commandr.interfaces.ICommandHandler;
+import fr.alexpado.commandr.interfaces.ICommandInput;
 import org.jetbrains.annotations.NotNull;
 
 public class CommandEvent<T> implements ICommandEvent<T> {
@@ -12,15 +13,19 @@ public class CommandEvent<T> implements ICommandEvent<T> {
     private final ICommandHandler<T> handler;
     private final ICommand<T>        command;
     private final T                  emitter;
-    private final String             message;
+    private final ICommandInput      input;
     private       boolean            cancelled;
 
     public CommandEvent(ICommandContext<T> context, ICommandHandler<T> handler, ICommand<T> command, T emitter, String message) {
+        this(context, handler, command, emitter, new CommandInput(message));
+    }
+
+    public CommandEvent(ICommandContext<T> context, ICommandHandler<T> handler, ICommand<T> command, T emitter, ICommandInput input) {
         this.context   = context;
         this.handler   = handler;
         this.command   = command;
         this.emitter   = emitter;
-        this.message   = message;
+        this.input     = input;
         this.cancelled = false;
     }
 
@@ -91,6 +96,16 @@ public class CommandEvent<T> implements ICommandEvent<T> {
      */
     @Override
     public String getMessage() {
-        return this.message;
+        return this.input.getRaw();
+    }
+
+    /**
+     * Get the tokenized user input that triggered this {@link ICommandEvent}.
+     *
+     * @return The {@link ICommandInput} representing the command.
+     */
+    @Override
+    public @NotNull ICommandInput getInput() {
+        return this.input;
     }
 }
@@ -1,27 +1,123 @@
 package fr.alexpado.commandr.impl;
 
-import fr.alexpado.commandr.annotations.Command;
-import fr.alexpado.commandr.annotations.Param;
+import fr.alexpado.commandr.annotations.Cacheable;
 import fr.alexpado.commandr.exceptions.SyntaxErrorException;
+import fr.alexpado.commandr.impl.jfr.BindingEvent;
+import fr.alexpado.commandr.impl.jfr.MatchingEvent;
+import fr.alexpado.commandr.impl.plan.CommandPlan;
+import fr.alexpado.commandr.impl.plan.CompiledSyntax;
+import fr.alexpado.commandr.impl.plan.MethodInvoker;
+import fr.alexpado.commandr.impl.plan.MethodPlan;
+import fr.alexpado.commandr.impl.plan.SyntaxMatch;
 import fr.alexpado.commandr.interfaces.ICommand;
 import fr.alexpado.commandr.interfaces.ICommandContext;
 import fr.alexpado.commandr.interfaces.ICommandHandler;
+import fr.alexpado.commandr.interfaces.ICommandInput;
+import fr.alexpado.commandr.interfaces.ICommandInvocation;
+import fr.alexpado.commandr.interfaces.ICommandMeta;
+import fr.alexpado.commandr.interfaces.IExecutionResult;
 import fr.alexpado.commandr.interfaces.ICommandListener;
-import fr.alexpado.syntaxic.SyntaxService;
-import fr.alexpado.syntaxic.SyntaxUtils;
-import fr.alexpado.syntaxic.interfaces.IMatchingResult;
-import fr.alexpado.syntaxic.interfaces.ISyntaxContainer;
-import fr.alexpado.syntaxic.interfaces.ISyntaxService;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class CommandImpl<T> implements ICommand<T> {
 
+    private static final ICommandInvocation SYNTAX_ERROR = ICommandInvocation.completed(ExecutionResult.syntaxError());
+    private static final Object             NO_KEY       = new Object();
+
+    private final ConcurrentHashMap<MethodPlan, ResultCache> caches         = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, CachedSyntax>    syntaxes       = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Long>            optionVersions = new ConcurrentHashMap<>();
+    private final AtomicLong                                 generation     = new AtomicLong();
+
+    private CommandPlan plan;
+
+    /**
+     * Called by the {@link ICommandHandler} when this {@link ICommand} is registered. This will retrieve the
+     * {@link CommandPlan} of this class, compiling it if necessary.
+     */
+    @Override
+    public void compile() {
+
+        this.plan = CommandPlan.of(this.getClass());
+    }
+
+    /**
+     * Retrieve the {@link CommandPlan} used to dispatch the user input to the right method. If this {@link ICommand}
+     * was not compiled beforehand, it will be compiled now.
+     *
+     * @return A {@link CommandPlan}.
+     */
+    protected @NotNull CommandPlan getPlan() {
+
+        CommandPlan plan = this.plan;
+        if (plan == null) {
+            plan      = CommandPlan.of(this.getClass());
+            this.plan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * Retrieve the {@link CompiledSyntax} to use for the provided {@link ICommandContext}. Unless the options are
+     * {@link ICommandMeta.OptionsScope#DYNAMIC}, the syntaxes compiled with the options are reused until
+     * {@link #invalidateOptions(Object)} is called.
+     *
+     * @param context
+     *         The current {@link ICommandContext} for this execution.
+     *
+     * @return A {@link CompiledSyntax}.
+     */
+    protected @NotNull CompiledSyntax getSyntax(@NotNull ICommandContext<T> context) {
+
+        ICommandMeta<T>           meta  = this.getMeta();
+        ICommandMeta.OptionsScope scope = meta.getOptionsScope();
+
+        if (scope == ICommandMeta.OptionsScope.DYNAMIC) {
+            return this.getPlan().compile(meta.getOptions(context));
+        }
+
+        Object key        = scope == ICommandMeta.OptionsScope.KEYED ? meta.getOptionsKey(context) : null;
+        Object cacheKey   = key == null ? NO_KEY : key;
+        long   generation = this.generation.get();
+        long   version    = this.optionVersions.getOrDefault(cacheKey, 0L);
+
+        CachedSyntax cached = this.syntaxes.get(cacheKey);
+        if (cached != null && cached.generation == generation && cached.version == version) {
+            return cached.syntax;
+        }
+
+        // The versions are read before the options: if they are invalidated meanwhile, the stored syntax will already
+        // be outdated and compiled again on the next execution.
+        CompiledSyntax syntax = this.getPlan().compile(meta.getOptions(context));
+        this.syntaxes.put(cacheKey, new CachedSyntax(syntax, generation, version));
+        return syntax;
+    }
+
+    /**
+     * Discard the syntaxes compiled with the options of the provided key, so that the options are retrieved again on
+     * the next execution.
+     *
+     * @param key
+     *         The key of the options, as returned by {@link ICommandMeta#getOptionsKey(ICommandContext)}, or null to
+     *         discard every compiled syntax.
+     */
+    @Override
+    public void invalidateOptions(@Nullable Object key) {
+
+        if (key == null) {
+            this.generation.incrementAndGet();
+            this.syntaxes.clear();
+        } else {
+            this.optionVersions.merge(key, 1L, Long::sum);
+            this.syntaxes.remove(key);
+        }
+    }
+
     /**
      * Called by the {@link ICommandHandler} in use when this {@link ICommand} is triggered.
      * <p>
@@ -42,52 +138,285 @@ public abstract class CommandImpl<T> implements ICommand<T> {
     @Override
     public @Nullable Object execute(@NotNull ICommandContext<T> context, @NotNull String message) throws Exception {
 
-        Map<Method, ISyntaxContainer> syntaxMap = new HashMap<>();
-        Map<String, List<String>>     options   = Optional.ofNullable(this.getMeta().getOptions(context)).orElseGet(HashMap::new);
-        for (Method declaredMethod : this.getClass().getDeclaredMethods()) {
-            Command command = declaredMethod.getAnnotation(Command.class);
+        return this.execute(context, new CommandInput(message));
+    }
+
+    /**
+     * Called by the {@link ICommandHandler} in use when this {@link ICommand} is triggered, with the user input
+     * already tokenized.
+     *
+     * @param context The current {@link ICommandContext} for this execution.
+     * @param input   The tokenized user input corresponding to a command.
+     *
+     * @return An object being the result of the execution, or <code>null</code>.
+     *
+     * @throws Exception Thrown when something goes wrong.
+     * @see #execute(ICommandContext, String)
+     */
+    @Override
+    public @Nullable Object execute(@NotNull ICommandContext<T> context, @NotNull ICommandInput input) throws Exception {
+
+        IExecutionResult result = this.tryExecute(context, input);
+
+        if (result.getStatus() == IExecutionResult.Status.SYNTAX_ERROR) {
+            throw new SyntaxErrorException();
+        }
+        return result.getStatus() == IExecutionResult.Status.SUCCESS ? result.getResult() : null;
+    }
+
+    /**
+     * Called by the {@link ICommandHandler} in use when this {@link ICommand} is triggered. A user input not matching
+     * any syntax is reported through the returned {@link IExecutionResult} without throwing any exception.
+     *
+     * @param context The current {@link ICommandContext} for this execution.
+     * @param input   The tokenized user input corresponding to a command.
+     *
+     * @return An {@link IExecutionResult} representing the outcome of the execution.
+     *
+     * @throws Exception Thrown when something goes wrong within the command.
+     */
+    @Override
+    public @NotNull IExecutionResult tryExecute(@NotNull ICommandContext<T> context, @NotNull ICommandInput input) throws Exception {
+
+        return this.prepare(context, input).invoke();
+    }
+
+    /**
+     * Match the user input against the syntaxes of this {@link ICommand} and bind the parameters of the matching
+     * method. The returned {@link ICommandInvocation} will only invoke the method.
+     *
+     * @param context The current {@link ICommandContext} for this execution.
+     * @param input   The tokenized user input corresponding to a command.
+     *
+     * @return An {@link ICommandInvocation} invoking the matching method, or a completed {@link ICommandInvocation}
+     *         if no syntax matches the user input or if the result of the method is cached.
+     */
+    @Override
+    public @NotNull ICommandInvocation prepare(@NotNull ICommandContext<T> context, @NotNull ICommandInput input) {
+
+        return this.prepare(context, this.match(context, input));
+    }
+
+    /**
+     * Match the user input against the syntaxes of this {@link ICommand}, without binding any parameter. This allows
+     * an {@link ICommandHandler} to know which method will be invoked before the execution is prepared.
+     *
+     * @param context The current {@link ICommandContext} for this execution.
+     * @param input   The tokenized user input corresponding to a command.
+     *
+     * @return The {@link SyntaxMatch} of the user input, or null if no syntax matches the user input.
+     */
+    public @Nullable SyntaxMatch match(@NotNull ICommandContext<T> context, @NotNull ICommandInput input) {
+
+        MatchingEvent matching = new MatchingEvent();
+        matching.begin();
 
-            if (command != null) {
-                syntaxMap.put(declaredMethod, SyntaxUtils.toContainer(options, command.value(), command.order()));
+        SyntaxMatch match = this.getSyntax(context).match(input, 1);
+
+        matching.end();
+        if (matching.shouldCommit()) {
+            matching.label   = this.getMeta().getLabel();
+            matching.outcome = match == null ? "SYNTAX_ERROR" : "MATCHED";
+            matching.setMethod(match == null ? null : match.getMethod().getMethod());
+            matching.commit();
+        }
+        return match;
+    }
+
+    /**
+     * Bind the parameters of the method of the provided {@link SyntaxMatch}, as returned by
+     * {@link #match(ICommandContext, ICommandInput)}. The returned {@link ICommandInvocation} will only invoke the
+     * method.
+     *
+     * @param context The current {@link ICommandContext} for this execution.
+     * @param match   The {@link SyntaxMatch} of the user input, or null if no syntax matches the user input.
+     *
+     * @return An {@link ICommandInvocation} invoking the matching method, or a completed {@link ICommandInvocation}
+     *         if no syntax matches the user input or if the result of the method is cached.
+     */
+    public @NotNull ICommandInvocation prepare(@NotNull ICommandContext<T> context, @Nullable SyntaxMatch match) {
+
+        if (match == null) {
+            return SYNTAX_ERROR;
+        }
+
+        MethodPlan method    = match.getMethod();
+        Object[]   arguments = this.bind(context, match);
+        Cacheable  cacheable = method.getCacheable();
+
+        if (cacheable == null) {
+            return new MethodInvocation(this, method, arguments, null, null);
+        }
+
+        ResultCache     cache = this.caches.computeIfAbsent(method, plan -> new ResultCache(cacheable));
+        ResultCache.Key key   = method.createCacheKey(arguments, cacheable.perEmitter() ? context.getEmitter() : null);
+        Object          value = cache.get(key);
+
+        if (value == ResultCache.MISS) {
+            return new MethodInvocation(this, method, arguments, cache, key);
+        }
+        return new CachedInvocation(method, value);
+    }
+
+    /**
+     * Rehearse the execution of this {@link ICommand}, used by {@link fr.alexpado.commandr.CommandHandler} to warm up
+     * the hot paths without side effects. The user input is matched against the syntaxes compiled without options and
+     * the parameters are bound, but the options, the compiled syntaxes and the cached results are never used. The
+     * returned {@link ICommandInvocation} goes through the same path as a real invocation, but the method itself is
+     * replaced by {@link MethodInvoker#noop(int)}.
+     *
+     * @param context The synthetic {@link ICommandContext} of the rehearsal.
+     * @param input   The tokenized user input corresponding to a command.
+     *
+     * @return An {@link ICommandInvocation} doing nothing, or a completed {@link ICommandInvocation} if no syntax
+     *         matches the user input.
+     */
+    public @NotNull ICommandInvocation rehearse(@NotNull ICommandContext<T> context, @NotNull ICommandInput input) {
+
+        SyntaxMatch match = this.getPlan().compile(null).match(input, 1);
+
+        if (match == null) {
+            return SYNTAX_ERROR;
+        }
+
+        MethodPlan method    = match.getMethod();
+        Object[]   arguments = this.bind(context, match);
+
+        return new MethodInvocation(this, method.withInvoker(MethodInvoker.noop(arguments.length)), arguments, null, null);
+    }
+
+    /**
+     * Resolve the arguments of the method of the provided {@link SyntaxMatch}.
+     *
+     * @param context The current {@link ICommandContext} for this execution.
+     * @param match   The {@link SyntaxMatch} of the user input.
+     *
+     * @return The arguments of the method.
+     */
+    private Object[] bind(ICommandContext<T> context, SyntaxMatch match) {
+
+        BindingEvent binding = new BindingEvent();
+        binding.begin();
+        String outcome = "EXCEPTION";
+
+        try {
+            Object[] arguments = match.getMethod().bind(context, match);
+            outcome = "BOUND";
+            return arguments;
+        } finally {
+            binding.end();
+            if (binding.shouldCommit()) {
+                binding.label   = this.getMeta().getLabel();
+                binding.outcome = outcome;
+                binding.setMethod(match.getMethod().getMethod());
+                binding.commit();
             }
         }
+    }
+
+    /**
+     * Remove every value cached for the methods of this {@link ICommand} annotated with {@link Cacheable}.
+     */
+    @Override
+    public void invalidateCache() {
+
+        this.caches.values().forEach(ResultCache::invalidate);
+    }
 
-        List<String> userInput = Arrays.stream(message.trim().split(" "))
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.toList());
+    /**
+     * Remove every value cached for the provided emitter, for the methods of this {@link ICommand} annotated with
+     * {@link Cacheable} having {@link Cacheable#perEmitter()} enabled.
+     *
+     * @param emitter
+     *         The emitter for which the values should be removed.
+     */
+    public void invalidateCache(@NotNull T emitter) {
 
-        ISyntaxService<Method>            service        = new SyntaxService<>(syntaxMap);
-        String                            matchData      = String.join(" ", userInput.subList(1, userInput.size()));
-        Optional<IMatchingResult<Method>> matchingResult = service.getMatchingResult(matchData);
+        this.caches.values().forEach(cache -> cache.invalidate(emitter));
+    }
 
-        if (matchingResult.isEmpty()) {
-            throw new SyntaxErrorException();
+    /**
+     * {@link ICommandInvocation} invoking a method, and caching its result if needed.
+     */
+    private static final class MethodInvocation implements ICommandInvocation {
+
+        private final CommandImpl<?>  command;
+        private final MethodPlan      method;
+        private final Object[]        arguments;
+        private final ResultCache     cache;
+        private final ResultCache.Key key;
+
+        MethodInvocation(CommandImpl<?> command, MethodPlan method, Object[] arguments, ResultCache cache, ResultCache.Key key) {
+
+            this.command   = command;
+            this.method    = method;
+            this.arguments = arguments;
+            this.cache     = cache;
+            this.key       = key;
         }
 
-        IMatchingResult<Method> result     = matchingResult.get();
-        Method                  exec       = result.getIdentifier();
-        List<Object>            parameters = new ArrayList<>();
+        @Override
+        public @NotNull Method getMethod() {
 
-        for (Parameter parameter : result.getIdentifier().getParameters()) {
-            if (parameter.isAnnotationPresent(Param.class)) {
-                Param param = parameter.getAnnotation(Param.class);
+            return this.method.getMethod();
+        }
+
+        @Override
+        public @NotNull IExecutionResult invoke() throws Exception {
 
-                Optional<String> optionalValue = result.getParameter(param.value());
+            Object result = this.method.getInvoker().invoke(this.command, this.arguments);
 
-                if (parameter.getType() == Optional.class) {
-                    parameters.add(optionalValue);
-                } else {
-                    parameters.add(optionalValue.orElse(null));
-                }
-            } else if (context.hasClass(parameter.getType())) {
-                parameters.add(context.getRegisteredClass(parameter.getType()));
-            } else if (parameter.getType().isInstance(context)) {
-                parameters.add(context);
-            } else {
-                throw new IllegalStateException("Unable to complete type " + parameter.getType().getName());
+            if (this.cache != null) {
+                this.cache.put(this.key, result);
             }
+            return ExecutionResult.success(result);
         }
+    }
 
-        return exec.invoke(this, parameters.toArray());
+    /**
+     * Completed {@link ICommandInvocation} returning a cached value without invoking the method.
+     */
+    private static final class CachedInvocation implements ICommandInvocation {
+
+        private final MethodPlan method;
+        private final Object     value;
+
+        CachedInvocation(MethodPlan method, Object value) {
+
+            this.method = method;
+            this.value  = value;
+        }
+
+        @Override
+        public boolean isCompleted() {
+
+            return true;
+        }
+
+        @Override
+        public @NotNull Method getMethod() {
+
+            return this.method.getMethod();
+        }
+
+        @Override
+        public @NotNull IExecutionResult invoke() {
+
+            return ExecutionResult.cached(this.value);
+        }
+    }
+
+    private static final class CachedSyntax {
+
+        private final CompiledSyntax syntax;
+        private final long           generation;
+        private final long           version;
+
+        CachedSyntax(CompiledSyntax syntax, long generation, long version) {
+
+            this.syntax     = syntax;
+            this.generation = generation;
+            this.version    = version;
+        }
     }
 }
@@ -0,0 +1,191 @@
+package fr.alexpado.commandr.impl;
+
+import fr.alexpado.commandr.interfaces.ICommandInput;
+import org.jetbrains.annotations.NotNull;
+
+public class CommandInput implements ICommandInput {
+
+    private static final int[] NO_TOKENS = new int[0];
+
+    private final String raw;
+    private final int[]  bounds;
+    private final int    count;
+
+    /**
+     * Create a new instance of {@link CommandInput} by tokenizing the provided user input.
+     *
+     * @param raw
+     *         The raw user input.
+     */
+    public CommandInput(@NotNull String raw) {
+
+        this.raw = raw;
+
+        int start = 0;
+        int end   = raw.length();
+
+        while (start < end && raw.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && raw.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (raw.charAt(i) != ' ' && (i == start || raw.charAt(i - 1) == ' ')) {
+                count++;
+            }
+        }
+
+        int[] bounds = count == 0 ? NO_TOKENS : new int[count * 2];
+        int   token  = 0;
+        for (int i = start; i < end; i++) {
+            if (raw.charAt(i) != ' ' && (i == start || raw.charAt(i - 1) == ' ')) {
+                bounds[token * 2] = i;
+            }
+            if (raw.charAt(i) != ' ' && (i == end - 1 || raw.charAt(i + 1) == ' ')) {
+                bounds[token * 2 + 1] = i + 1;
+                token++;
+            }
+        }
+
+        this.bounds = bounds;
+        this.count  = count;
+    }
+
+    /**
+     * Retrieve the raw user input, as it was received.
+     *
+     * @return The raw user input.
+     */
+    @Override
+    public @NotNull String getRaw() {
+
+        return this.raw;
+    }
+
+    /**
+     * Retrieve the amount of tokens (words separated by spaces) within the user input.
+     *
+     * @return The amount of tokens.
+     */
+    @Override
+    public int getTokenCount() {
+
+        return this.count;
+    }
+
+    /**
+     * Retrieve the index, within {@link #getRaw()}, of the first character of the provided token.
+     *
+     * @param index
+     *         The token index.
+     *
+     * @return The index of the first character of the token.
+     */
+    @Override
+    public int getTokenStart(int index) {
+
+        this.checkIndex(index);
+        return this.bounds[index * 2];
+    }
+
+    /**
+     * Retrieve the index, within {@link #getRaw()}, following the last character of the provided token.
+     *
+     * @param index
+     *         The token index.
+     *
+     * @return The index following the last character of the token.
+     */
+    @Override
+    public int getTokenEnd(int index) {
+
+        this.checkIndex(index);
+        return this.bounds[index * 2 + 1];
+    }
+
+    /**
+     * Retrieve the provided token as a {@link String}.
+     *
+     * @param index
+     *         The token index.
+     *
+     * @return The token.
+     */
+    @Override
+    public @NotNull String getToken(int index) {
+
+        return this.raw.substring(this.getTokenStart(index), this.getTokenEnd(index));
+    }
+
+    /**
+     * Check if the provided token is equal to the provided value, without creating any {@link String}.
+     *
+     * @param index
+     *         The token index.
+     * @param value
+     *         The value to compare the token with.
+     * @param ignoreCase
+     *         True if the comparison should ignore the case, false otherwise.
+     *
+     * @return True if the token is equal to the value, false otherwise.
+     */
+    @Override
+    public boolean tokenEquals(int index, @NotNull String value, boolean ignoreCase) {
+
+        int start = this.getTokenStart(index);
+        int end   = this.getTokenEnd(index);
+
+        return end - start == value.length() && this.raw.regionMatches(ignoreCase, start, value, 0, value.length());
+    }
+
+    /**
+     * Join every token starting from the provided index using a single space.
+     *
+     * @param fromIndex
+     *         The index of the first token to include.
+     *
+     * @return The joined tokens, or an empty {@link String} if there are no tokens to join.
+     */
+    @Override
+    public @NotNull String join(int fromIndex) {
+
+        if (fromIndex >= this.count) {
+            return "";
+        }
+
+        boolean singleSpaced = true;
+        for (int i = fromIndex + 1; i < this.count && singleSpaced; i++) {
+            singleSpaced = this.bounds[i * 2] - this.bounds[i * 2 - 1] == 1;
+        }
+
+        if (singleSpaced) {
+            // The raw input already has the right shape, no need to rebuild it.
+            return this.raw.substring(this.bounds[fromIndex * 2], this.bounds[this.count * 2 - 1]);
+        }
+
+        StringBuilder builder = new StringBuilder(this.bounds[this.count * 2 - 1] - this.bounds[fromIndex * 2]);
+        for (int i = fromIndex; i < this.count; i++) {
+            if (i > fromIndex) {
+                builder.append(' ');
+            }
+            builder.append(this.raw, this.bounds[i * 2], this.bounds[i * 2 + 1]);
+        }
+        return builder.toString();
+    }
+
+    private void checkIndex(int index) {
+
+        if (index < 0 || index >= this.count) {
+            throw new IndexOutOfBoundsException("Token index " + index + " out of bounds for " + this.count + " tokens");
+        }
+    }
+
+    @Override
+    public String toString() {
+
+        return this.raw;
+    }
+}
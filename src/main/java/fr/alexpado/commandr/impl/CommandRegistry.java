@@ -0,0 +1,336 @@
+package fr.alexpado.commandr.impl;
+
+import fr.alexpado.commandr.interfaces.ICommand;
+import fr.alexpado.commandr.interfaces.ICommandInterceptor;
+import fr.alexpado.commandr.interfaces.ICommandListener;
+import fr.alexpado.commandr.interfaces.ICommandMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of every {@link ICommand}, {@link ICommandListener} and {@link ICommandInterceptor} registered
+ * within a command handler.
+ * <p>
+ * Every modification creates a new {@link CommandRegistry} with an incremented version, leaving the current one
+ * untouched: a {@link CommandRegistry} can be read from any thread without any synchronization.
+ *
+ * @param <T>
+ *         The type of the {@link ICommand} emitter.
+ */
+public final class CommandRegistry<T> {
+
+    private final long                     version;
+    private final Map<String, ICommand<T>> commands;
+    private final LabelTrie<ICommand<T>>   labels;
+    private final ListenerChain<T>         chain;
+
+    private CommandRegistry(long version, Map<String, ICommand<T>> commands, LabelTrie<ICommand<T>> labels, ListenerChain<T> chain) {
+
+        this.version  = version;
+        this.commands = commands;
+        this.labels   = labels;
+        this.chain    = chain;
+    }
+
+    /**
+     * Create an empty {@link CommandRegistry}.
+     *
+     * @param <T>
+     *         The type of the {@link ICommand} emitter.
+     *
+     * @return An empty {@link CommandRegistry}.
+     */
+    public static <T> @NotNull CommandRegistry<T> empty() {
+
+        return new CommandRegistry<>(0, Collections.emptyMap(), LabelTrie.empty(), ListenerChain.empty());
+    }
+
+    /**
+     * Retrieve the version of this {@link CommandRegistry}. The version is incremented on every modification.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+
+        return this.version;
+    }
+
+    /**
+     * Retrieve an {@link ICommand} using its label or one of its aliases, ignoring the case.
+     *
+     * @param label
+     *         The label or alias associated to the {@link ICommand} to retrieve
+     *
+     * @return The {@link ICommand}, or {@code null} if no {@link ICommand} is associated to the label.
+     */
+    public @Nullable ICommand<T> getCommand(@NotNull CharSequence label) {
+
+        return this.labels.get(label);
+    }
+
+    /**
+     * Retrieve an {@link ICommand} using the label or alias contained in the provided region of the source.
+     *
+     * @param source
+     *         The {@link CharSequence} containing the label.
+     * @param start
+     *         The index of the first character of the label.
+     * @param end
+     *         The index following the last character of the label.
+     *
+     * @return The {@link ICommand}, or {@code null} if no {@link ICommand} is associated to the label.
+     */
+    public @Nullable ICommand<T> getCommand(@NotNull CharSequence source, int start, int end) {
+
+        return this.labels.get(source, start, end);
+    }
+
+    /**
+     * Get an unmodifiable {@link Map} mapping every registered command label and their corresponding {@link ICommand}.
+     *
+     * @return A {@link Map} of {@link String} and {@link ICommand}
+     */
+    public @NotNull Map<String, ICommand<T>> getCommands() {
+
+        return this.commands;
+    }
+
+    /**
+     * Retrieve every registered {@link ICommandListener}. The returned array must not be modified.
+     *
+     * @return An array of {@link ICommandListener}.
+     */
+    public @NotNull ICommandListener<T>[] getListeners() {
+
+        return this.chain.getListeners();
+    }
+
+    /**
+     * Retrieve the {@link ListenerChain} compiled from every registered {@link ICommandListener} and
+     * {@link ICommandInterceptor}.
+     *
+     * @return A {@link ListenerChain}.
+     */
+    public @NotNull ListenerChain<T> getListenerChain() {
+
+        return this.chain;
+    }
+
+    /**
+     * Create a copy of this {@link CommandRegistry} having the same commands, but neither {@link ICommandListener} nor
+     * {@link ICommandInterceptor}. The copy keeps the version of this {@link CommandRegistry}, and is not meant to
+     * replace it.
+     *
+     * @return A new {@link CommandRegistry}.
+     */
+    public @NotNull CommandRegistry<T> withoutListeners() {
+
+        return new CommandRegistry<>(this.version, this.commands, this.labels, ListenerChain.empty());
+    }
+
+    /**
+     * Create a new {@link CommandRegistry} containing the provided {@link ICommand}, registered under its label and all
+     * of its aliases.
+     *
+     * @param command
+     *         The {@link ICommand} to add.
+     *
+     * @return A new {@link CommandRegistry}.
+     *
+     * @throws IllegalStateException
+     *         Threw if the label or one of the aliases of the command is already in use.
+     */
+    public @NotNull CommandRegistry<T> withCommand(@NotNull ICommand<T> command) {
+
+        ICommandMeta<T> meta  = command.getMeta();
+        String          label = meta.getLabel();
+        if (this.getCommand(label) != null) {
+            throw new IllegalStateException("Tried to register an already registered command.");
+        }
+
+        List<String> aliases = meta.getAliases();
+        for (String alias : aliases) {
+            if (this.getCommand(alias) != null || alias.equalsIgnoreCase(label)) {
+                throw new IllegalStateException("Tried to register the alias '" + alias + "' already used by another command.");
+            }
+        }
+
+        Map<String, ICommand<T>> commands = new HashMap<>(this.commands);
+        commands.put(label, command);
+
+        LabelTrie<ICommand<T>> labels = this.labels.with(label, command);
+        for (String alias : aliases) {
+            labels = labels.with(alias, command);
+        }
+
+        return new CommandRegistry<>(this.version + 1, Collections.unmodifiableMap(commands), labels, this.chain);
+    }
+
+    /**
+     * Create a new {@link CommandRegistry} containing every provided {@link ICommand}, registered under their label
+     * and all of their aliases. Every label is checked in a single pass, and either every {@link ICommand} is added or
+     * none is.
+     *
+     * @param commands
+     *         The {@link ICommand}s to add.
+     *
+     * @return A new {@link CommandRegistry}.
+     *
+     * @throws IllegalStateException
+     *         Threw if a label or an alias is already in use or used more than once, listing every conflict.
+     */
+    public @NotNull CommandRegistry<T> withCommands(@NotNull Collection<? extends ICommand<T>> commands) {
+
+        Map<String, ICommand<T>> map       = new HashMap<>(this.commands);
+        LabelTrie<ICommand<T>>   labels    = this.labels;
+        List<String>             conflicts = new ArrayList<>();
+
+        for (ICommand<T> command : commands) {
+            ICommandMeta<T> meta  = command.getMeta();
+            String          label = meta.getLabel();
+
+            List<String> names = new ArrayList<>(meta.getAliases().size() + 1);
+            names.add(label);
+            names.addAll(meta.getAliases());
+
+            for (String name : names) {
+                ICommand<T> existing = labels.get(name);
+
+                if (existing != null) {
+                    conflicts.add(String.format("'%s' (%s, already used by %s)", name, command.getClass().getName(), existing.getClass().getName()));
+                } else {
+                    labels = labels.with(name, command);
+                }
+            }
+            map.put(label, command);
+        }
+
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException("Tried to register commands with labels already in use: " + String.join(", ", conflicts));
+        }
+
+        return new CommandRegistry<>(this.version + 1, Collections.unmodifiableMap(map), labels, this.chain);
+    }
+
+    /**
+     * Create a new {@link CommandRegistry} containing the provided {@link ICommandListener}.
+     *
+     * @param listener
+     *         The {@link ICommandListener} to add.
+     *
+     * @return A new {@link CommandRegistry}.
+     *
+     * @throws IllegalStateException
+     *         Threw if the {@link ICommandListener} is already registered.
+     */
+    public @NotNull CommandRegistry<T> withListener(@NotNull ICommandListener<T> listener) {
+
+        if (this.indexOf(listener) >= 0) {
+            throw new IllegalStateException("Tried to register an already registered listener.");
+        }
+
+        ICommandListener<T>[] current   = this.chain.getListeners();
+        ICommandListener<T>[] listeners = Arrays.copyOf(current, current.length + 1);
+        listeners[current.length] = listener;
+
+        return new CommandRegistry<>(this.version + 1, this.commands, this.labels, this.chain.withListeners(listeners));
+    }
+
+    /**
+     * Create a new {@link CommandRegistry} without the provided {@link ICommandListener}.
+     *
+     * @param listener
+     *         The {@link ICommandListener} to remove.
+     *
+     * @return A new {@link CommandRegistry}.
+     *
+     * @throws IllegalStateException
+     *         Threw if the {@link ICommandListener} is not registered.
+     */
+    public @NotNull CommandRegistry<T> withoutListener(@NotNull ICommandListener<T> listener) {
+
+        int index = this.indexOf(listener);
+        if (index < 0) {
+            throw new IllegalStateException("Tried to unregister an unregistered listener.");
+        }
+
+        ICommandListener<T>[] current = this.chain.getListeners();
+        ICommandListener<T>[] listeners = ListenerChain.newListeners(current.length - 1);
+        System.arraycopy(current, 0, listeners, 0, index);
+        System.arraycopy(current, index + 1, listeners, index, listeners.length - index);
+
+        return new CommandRegistry<>(this.version + 1, this.commands, this.labels, this.chain.withListeners(listeners));
+    }
+
+    /**
+     * Create a new {@link CommandRegistry} containing the provided {@link ICommandInterceptor}, wrapping every
+     * {@link ICommandInterceptor} already registered.
+     *
+     * @param interceptor
+     *         The {@link ICommandInterceptor} to add.
+     *
+     * @return A new {@link CommandRegistry}.
+     *
+     * @throws IllegalStateException
+     *         Threw if the {@link ICommandInterceptor} is already registered.
+     */
+    public @NotNull CommandRegistry<T> withInterceptor(@NotNull ICommandInterceptor<T> interceptor) {
+
+        ICommandInterceptor<T>[] current = this.chain.getInterceptors();
+        if (Arrays.asList(current).contains(interceptor)) {
+            throw new IllegalStateException("Tried to register an already registered interceptor.");
+        }
+
+        ICommandInterceptor<T>[] interceptors = Arrays.copyOf(current, current.length + 1);
+        interceptors[current.length] = interceptor;
+
+        return new CommandRegistry<>(this.version + 1, this.commands, this.labels, this.chain.withInterceptors(interceptors));
+    }
+
+    /**
+     * Create a new {@link CommandRegistry} without the provided {@link ICommandInterceptor}.
+     *
+     * @param interceptor
+     *         The {@link ICommandInterceptor} to remove.
+     *
+     * @return A new {@link CommandRegistry}.
+     *
+     * @throws IllegalStateException
+     *         Threw if the {@link ICommandInterceptor} is not registered.
+     */
+    public @NotNull CommandRegistry<T> withoutInterceptor(@NotNull ICommandInterceptor<T> interceptor) {
+
+        ICommandInterceptor<T>[] current = this.chain.getInterceptors();
+        int                      index   = Arrays.asList(current).indexOf(interceptor);
+        if (index < 0) {
+            throw new IllegalStateException("Tried to unregister an unregistered interceptor.");
+        }
+
+        ICommandInterceptor<T>[] interceptors = ListenerChain.newInterceptors(current.length - 1);
+        System.arraycopy(current, 0, interceptors, 0, index);
+        System.arraycopy(current, index + 1, interceptors, index, interceptors.length - index);
+
+        return new CommandRegistry<>(this.version + 1, this.commands, this.labels, this.chain.withInterceptors(interceptors));
+    }
+
+    private int indexOf(ICommandListener<T> listener) {
+
+        // Listeners were historically identified by their hash code, which is kept here.
+        ICommandListener<T>[] listeners = this.chain.getListeners();
+        int                   hashCode  = listener.hashCode();
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i].hashCode() == hashCode) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
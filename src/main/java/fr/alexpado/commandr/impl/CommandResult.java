@@ -5,16 +5,28 @@ import fr.alexpado.commandr.interfaces.ICommandResult;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Optional;
+
 public class CommandResult<T> implements ICommandResult<T> {
 
+    private static final CommandResult<?> NOT_FOUND = new CommandResult<>();
+
     private final boolean hasResult;
 
     @Nullable
     private final Object data;
 
-    @NotNull
+    @Nullable
     private final ICommandContext<T> context;
 
+    private CommandResult() {
+
+        this.context = null;
+
+        this.hasResult = false;
+        this.data      = null;
+    }
+
     /**
      * Create a new instance of {@link CommandResult} without a result.
      *
@@ -45,6 +57,32 @@ public class CommandResult<T> implements ICommandResult<T> {
         this.data      = data;
     }
 
+    /**
+     * Retrieve the shared {@link CommandResult} used when the user input did not target any registered command.
+     *
+     * @param <T>
+     *         The type of the command emitter.
+     *
+     * @return A {@link CommandResult} without result nor context.
+     */
+    public static <T> @NotNull CommandResult<T> notFound() {
+
+        //noinspection unchecked
+        return (CommandResult<T>) NOT_FOUND;
+    }
+
+    /**
+     * Check whether the user input targeted a registered command. When no command was targeted, no
+     * {@link ICommandContext} has been created and {@link #findContext()} is empty.
+     *
+     * @return True if a command has been found, false otherwise.
+     */
+    @Override
+    public boolean isCommandFound() {
+
+        return this.context != null;
+    }
+
     /**
      * Check whether a result is available (command executed).
      *
@@ -78,10 +116,31 @@ public class CommandResult<T> implements ICommandResult<T> {
      * Retrieve the context that was in-use when this {@link ICommandResult} was created.
      *
      * @return An {@link ICommandContext}
+     *
+     * @throws IllegalStateException
+     *         Threw if {@link #isCommandFound()} is false.
+     * @deprecated Use {@link #findContext()} instead.
      */
+    @Deprecated
     @Override
     public @NotNull ICommandContext<T> getContext() {
 
+        if (this.context == null) {
+            throw new IllegalStateException("No context is available as no command has been found, use findContext() instead.");
+        }
+
         return this.context;
     }
+
+    /**
+     * Retrieve the context that was in-use when this {@link ICommandResult} was created, if any.
+     *
+     * @return An {@link Optional} containing the {@link ICommandContext}, or an empty {@link Optional} if
+     *         {@link #isCommandFound()} is false.
+     */
+    @Override
+    public @NotNull Optional<ICommandContext<T>> findContext() {
+
+        return Optional.ofNullable(this.context);
+    }
 }
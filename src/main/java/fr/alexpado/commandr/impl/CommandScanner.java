@@ -0,0 +1,128 @@
+package fr.alexpado.commandr.impl;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Utility class discovering the {@link CommandImpl} subclasses of a package, either from a directory or from a jar file
+ * of the classpath.
+ */
+public final class CommandScanner {
+
+    private CommandScanner() {}
+
+    /**
+     * Find every concrete {@link CommandImpl} subclass declared in the provided package or in one of its sub-packages,
+     * that can be instantiated using a public constructor without parameters.
+     *
+     * @param packageName
+     *         The name of the package to scan.
+     * @param loader
+     *         The {@link ClassLoader} used to find and load the classes.
+     *
+     * @return A {@link List} of {@link CommandImpl} subclasses, sorted by name.
+     *
+     * @throws IOException
+     *         Threw if the classpath could not be read.
+     */
+    public static @NotNull List<Class<? extends CommandImpl<?>>> scan(@NotNull String packageName, @NotNull ClassLoader loader) throws IOException {
+
+        String           path       = packageName.replace('.', '/');
+        Set<String>      classNames = new TreeSet<>();
+        Enumeration<URL> resources  = loader.getResources(path);
+
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+
+            if ("file".equals(resource.getProtocol())) {
+                scanDirectory(toPath(resource), packageName, classNames);
+            } else if ("jar".equals(resource.getProtocol())) {
+                URLConnection connection = resource.openConnection();
+                connection.setUseCaches(false);
+
+                try (JarFile jar = ((JarURLConnection) connection).getJarFile()) {
+                    scanJar(jar, path, classNames);
+                }
+            }
+        }
+
+        List<Class<? extends CommandImpl<?>>> types = new ArrayList<>();
+        for (String className : classNames) {
+            Class<?> type;
+
+            try {
+                type = Class.forName(className, false, loader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                continue;
+            }
+
+            if (isInstantiableCommand(type)) {
+                //noinspection unchecked
+                types.add((Class<? extends CommandImpl<?>>) type);
+            }
+        }
+        return types;
+    }
+
+    private static Path toPath(URL resource) throws IOException {
+
+        try {
+            return Paths.get(resource.toURI());
+        } catch (URISyntaxException e) {
+            return new File(resource.getPath()).toPath();
+        }
+    }
+
+    private static void scanDirectory(Path directory, String packageName, Set<String> classNames) throws IOException {
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".class")).forEach(file -> {
+                String relative = directory.relativize(file).toString().replace(File.separatorChar, '.');
+                classNames.add(packageName + "." + relative.substring(0, relative.length() - ".class".length()));
+            });
+        }
+    }
+
+    private static void scanJar(JarFile jar, String path, Set<String> classNames) {
+
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            String name = entries.nextElement().getName();
+
+            if (name.startsWith(path + "/") && name.endsWith(".class")) {
+                classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+            }
+        }
+    }
+
+    private static boolean isInstantiableCommand(Class<?> type) {
+
+        if (!CommandImpl.class.isAssignableFrom(type) || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return false;
+        }
+
+        if (type.isAnonymousClass() || type.isLocalClass() || (type.isMemberClass() && !Modifier.isStatic(type.getModifiers()))) {
+            return false;
+        }
+
+        try {
+            return Modifier.isPublic(type.getConstructor().getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
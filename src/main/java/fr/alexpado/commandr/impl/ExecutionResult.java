@@ -0,0 +1,117 @@
+package fr.alexpado.commandr.impl;
+
+import fr.alexpado.commandr.interfaces.IExecutionResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public final class ExecutionResult implements IExecutionResult {
+
+    private static final ExecutionResult SYNTAX_ERROR = new ExecutionResult(Status.SYNTAX_ERROR, null, false);
+    private static final ExecutionResult CANCELLED    = new ExecutionResult(Status.CANCELLED, null, false);
+
+    private final Status  status;
+    private final boolean cached;
+
+    @Nullable
+    private final Object data;
+
+    private ExecutionResult(Status status, @Nullable Object data, boolean cached) {
+
+        this.status = status;
+        this.data   = data;
+        this.cached = cached;
+    }
+
+    /**
+     * Create a new {@link ExecutionResult} representing a successful execution.
+     *
+     * @param data
+     *         The data returned by the command.
+     *
+     * @return An {@link ExecutionResult} with the {@link Status#SUCCESS} status.
+     */
+    public static @NotNull ExecutionResult success(@Nullable Object data) {
+
+        return new ExecutionResult(Status.SUCCESS, data, false);
+    }
+
+    /**
+     * Create a new {@link ExecutionResult} representing a successful execution whose result has been retrieved from a
+     * cache, without invoking the command.
+     *
+     * @param data
+     *         The cached data.
+     *
+     * @return An {@link ExecutionResult} with the {@link Status#SUCCESS} status.
+     */
+    public static @NotNull ExecutionResult cached(@Nullable Object data) {
+
+        return new ExecutionResult(Status.SUCCESS, data, true);
+    }
+
+    /**
+     * Retrieve the shared {@link ExecutionResult} representing a user input not matching any syntax.
+     *
+     * @return An {@link ExecutionResult} with the {@link Status#SYNTAX_ERROR} status.
+     */
+    public static @NotNull ExecutionResult syntaxError() {
+
+        return SYNTAX_ERROR;
+    }
+
+    /**
+     * Retrieve the shared {@link ExecutionResult} representing a cancelled execution.
+     *
+     * @return An {@link ExecutionResult} with the {@link Status#CANCELLED} status.
+     */
+    public static @NotNull ExecutionResult cancelled() {
+
+        return CANCELLED;
+    }
+
+    /**
+     * Retrieve the {@link Status} of the execution.
+     *
+     * @return A {@link Status}.
+     */
+    @Override
+    public @NotNull Status getStatus() {
+
+        return this.status;
+    }
+
+    /**
+     * Retrieve the data returned by the command. The data may be null.
+     *
+     * @return The command's result.
+     *
+     * @throws IllegalStateException
+     *         Threw if {@link #getStatus()} is not {@link Status#SUCCESS}.
+     */
+    @Override
+    public @Nullable Object getResult() {
+
+        if (this.status != Status.SUCCESS) {
+            throw new IllegalStateException("There is no result available.");
+        }
+
+        return this.data;
+    }
+
+    /**
+     * Check if the result comes from a cache, in which case the command has not been invoked.
+     *
+     * @return True if the result has been cached, false otherwise.
+     */
+    @Override
+    public boolean isCached() {
+
+        return this.cached;
+    }
+
+    @Override
+    public String toString() {
+
+        return "ExecutionResult{" + this.status + "}";
+    }
+}
@@ -0,0 +1,174 @@
+package fr.alexpado.commandr.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Immutable and case-insensitive character trie of command labels. Labels are looked up directly within a region of
+ * the user input, folding the case of each character while traversing the trie: the cost of a lookup only depends on
+ * the length of the label, and no {@link String} is ever created.
+ * <p>
+ * Adding a label creates a new {@link LabelTrie} sharing every node that is not on the path of the new label, so that
+ * a {@link LabelTrie} can be safely shared between threads.
+ *
+ * @param <V>
+ *         The type of the indexed values.
+ */
+public final class LabelTrie<V> {
+
+    private static final LabelTrie<?> EMPTY = new LabelTrie<>(new Node<>(Node.NO_KEYS, Node.NO_CHILDREN, null), 0);
+
+    private final Node<V> root;
+    private final int     size;
+
+    private LabelTrie(Node<V> root, int size) {
+
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Retrieve an empty {@link LabelTrie}.
+     *
+     * @param <V>
+     *         The type of the indexed values.
+     *
+     * @return An empty {@link LabelTrie}.
+     */
+    public static <V> @NotNull LabelTrie<V> empty() {
+
+        //noinspection unchecked
+        return (LabelTrie<V>) EMPTY;
+    }
+
+    /**
+     * Fold the case of the provided character, the same way {@link String#equalsIgnoreCase(String)} does.
+     *
+     * @param c
+     *         The character to fold.
+     *
+     * @return The folded character.
+     */
+    public static char fold(char c) {
+
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Create a new {@link LabelTrie} associating the provided label to the provided value, in addition to every label
+     * of this {@link LabelTrie}.
+     *
+     * @param label
+     *         The label to index.
+     * @param value
+     *         The value to associate to the label.
+     *
+     * @return A new {@link LabelTrie}.
+     */
+    public @NotNull LabelTrie<V> with(@NotNull String label, @NotNull V value) {
+
+        int size = this.get(label) == null ? this.size + 1 : this.size;
+        return new LabelTrie<>(this.root.with(label, 0, value), size);
+    }
+
+    /**
+     * Retrieve the value associated to the provided label.
+     *
+     * @param label
+     *         The label to look up.
+     *
+     * @return The value associated to the label, or {@code null} if the label is not indexed.
+     */
+    public @Nullable V get(@NotNull CharSequence label) {
+
+        return this.get(label, 0, label.length());
+    }
+
+    /**
+     * Retrieve the value associated to the label contained in the provided region of the source.
+     *
+     * @param source
+     *         The {@link CharSequence} containing the label.
+     * @param start
+     *         The index of the first character of the label.
+     * @param end
+     *         The index following the last character of the label.
+     *
+     * @return The value associated to the label, or {@code null} if the label is not indexed.
+     */
+    public @Nullable V get(@NotNull CharSequence source, int start, int end) {
+
+        Node<V> node = this.root;
+        for (int i = start; i < end && node != null; i++) {
+            node = node.get(fold(source.charAt(i)));
+        }
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Retrieve the amount of labels indexed in this {@link LabelTrie}.
+     *
+     * @return The amount of labels.
+     */
+    public int size() {
+
+        return this.size;
+    }
+
+    private static final class Node<V> {
+
+        private static final char[]    NO_KEYS     = new char[0];
+        private static final Node<?>[] NO_CHILDREN = new Node<?>[0];
+
+        private final char[]    keys;
+        private final Node<?>[] children;
+        private final V         value;
+
+        private Node(char[] keys, Node<?>[] children, V value) {
+
+            this.keys     = keys;
+            this.children = children;
+            this.value    = value;
+        }
+
+        @SuppressWarnings("unchecked")
+        Node<V> get(char key) {
+
+            int index = Arrays.binarySearch(this.keys, key);
+            return index < 0 ? null : (Node<V>) this.children[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        Node<V> with(String label, int position, V value) {
+
+            if (position == label.length()) {
+                return new Node<>(this.keys, this.children, value);
+            }
+
+            char key   = fold(label.charAt(position));
+            int  index = Arrays.binarySearch(this.keys, key);
+
+            if (index >= 0) {
+                Node<?>[] children = this.children.clone();
+                children[index] = ((Node<V>) this.children[index]).with(label, position + 1, value);
+                return new Node<>(this.keys, children, this.value);
+            }
+
+            int       insertion = -index - 1;
+            char[]    keys      = new char[this.keys.length + 1];
+            Node<?>[] children  = new Node<?>[this.children.length + 1];
+
+            System.arraycopy(this.keys, 0, keys, 0, insertion);
+            System.arraycopy(this.keys, insertion, keys, insertion + 1, this.keys.length - insertion);
+            System.arraycopy(this.children, 0, children, 0, insertion);
+            System.arraycopy(this.children, insertion, children, insertion + 1, this.children.length - insertion);
+
+            keys[insertion]     = key;
+            children[insertion] = new Node<V>(NO_KEYS, NO_CHILDREN, null).with(label, position + 1, value);
+
+            return new Node<>(keys, children, this.value);
+        }
+    }
+}
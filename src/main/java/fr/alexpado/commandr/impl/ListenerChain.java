@@ -0,0 +1,246 @@
+package fr.alexpado.commandr.impl;
+
+import fr.alexpado.commandr.interfaces.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable set of {@link ICommandListener}s and {@link ICommandInterceptor}s, compiled for dispatching.
+ * <p>
+ * For every {@link Callback}, the chain keeps an array containing only the {@link ICommandListener}s overriding the
+ * corresponding method: listeners relying on the default, empty implementation are never called. The arrays are
+ * computed once, when the chain is created.
+ *
+ * @param <T>
+ *         The type of the {@link ICommand} emitter.
+ */
+public final class ListenerChain<T> {
+
+    private final ICommandListener<T>[]    listeners;
+    private final ICommandListener<T>[][]  callbacks;
+    private final ICommandInterceptor<T>[] interceptors;
+
+    private ListenerChain(ICommandListener<T>[] listeners, ICommandInterceptor<T>[] interceptors) {
+
+        @SuppressWarnings("unchecked")
+        ICommandListener<T>[][] callbacks = (ICommandListener<T>[][]) new ICommandListener<?>[Callback.values().length][];
+        for (Callback callback : Callback.values()) {
+            List<ICommandListener<T>> overriding = new ArrayList<>(listeners.length);
+            for (ICommandListener<T> listener : listeners) {
+                if (callback.isOverriddenBy(listener)) {
+                    overriding.add(listener);
+                }
+            }
+            callbacks[callback.ordinal()] = overriding.toArray(newListeners(0));
+        }
+
+        this.listeners    = listeners;
+        this.callbacks    = callbacks;
+        this.interceptors = interceptors;
+    }
+
+    /**
+     * Create an empty {@link ListenerChain}.
+     *
+     * @param <T>
+     *         The type of the {@link ICommand} emitter.
+     *
+     * @return An empty {@link ListenerChain}.
+     */
+    public static <T> @NotNull ListenerChain<T> empty() {
+
+        return new ListenerChain<>(newListeners(0), newInterceptors(0));
+    }
+
+    /**
+     * Create an array of {@link ICommandListener}.
+     *
+     * @param length
+     *         The length of the array.
+     * @param <T>
+     *         The type of the {@link ICommand} emitter.
+     *
+     * @return An array filled with null.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ICommandListener<T>[] newListeners(int length) {
+
+        return (ICommandListener<T>[]) new ICommandListener<?>[length];
+    }
+
+    /**
+     * Create an array of {@link ICommandInterceptor}.
+     *
+     * @param length
+     *         The length of the array.
+     * @param <T>
+     *         The type of the {@link ICommand} emitter.
+     *
+     * @return An array filled with null.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ICommandInterceptor<T>[] newInterceptors(int length) {
+
+        return (ICommandInterceptor<T>[]) new ICommandInterceptor<?>[length];
+    }
+
+    /**
+     * Retrieve every {@link ICommandListener} of this {@link ListenerChain}. The returned array must not be modified.
+     *
+     * @return An array of {@link ICommandListener}.
+     */
+    public @NotNull ICommandListener<T>[] getListeners() {
+
+        return this.listeners;
+    }
+
+    /**
+     * Retrieve the {@link ICommandListener}s overriding the method of the provided {@link Callback}, in registration
+     * order. The returned array must not be modified.
+     *
+     * @param callback
+     *         The {@link Callback} to retrieve the listeners of.
+     *
+     * @return An array of {@link ICommandListener}, empty if no listener overrides the method.
+     */
+    public @NotNull ICommandListener<T>[] get(@NotNull Callback callback) {
+
+        return this.callbacks[callback.ordinal()];
+    }
+
+    /**
+     * Retrieve every {@link ICommandInterceptor} of this {@link ListenerChain}, the outermost first. The returned array
+     * must not be modified.
+     *
+     * @return An array of {@link ICommandInterceptor}.
+     */
+    public @NotNull ICommandInterceptor<T>[] getInterceptors() {
+
+        return this.interceptors;
+    }
+
+    /**
+     * Create a new {@link ListenerChain} with the provided {@link ICommandListener}s and the interceptors of this one.
+     *
+     * @param listeners
+     *         The {@link ICommandListener}s of the new chain.
+     *
+     * @return A new {@link ListenerChain}.
+     */
+    public @NotNull ListenerChain<T> withListeners(@NotNull ICommandListener<T>[] listeners) {
+
+        return new ListenerChain<>(listeners, this.interceptors);
+    }
+
+    /**
+     * Create a new {@link ListenerChain} with the provided {@link ICommandInterceptor}s and the listeners of this one.
+     *
+     * @param interceptors
+     *         The {@link ICommandInterceptor}s of the new chain, the outermost first.
+     *
+     * @return A new {@link ListenerChain}.
+     */
+    public @NotNull ListenerChain<T> withInterceptors(@NotNull ICommandInterceptor<T>[] interceptors) {
+
+        return new ListenerChain<>(this.listeners, interceptors);
+    }
+
+    /**
+     * Wrap the provided {@link ICommandInvocation} with every {@link ICommandInterceptor} of this chain.
+     *
+     * @param event
+     *         The {@link ICommandEvent} of the execution.
+     * @param invocation
+     *         The {@link ICommandInvocation} running the command body.
+     *
+     * @return An {@link ICommandInvocation} running the interceptors, or the provided one if there is no interceptor.
+     */
+    public @NotNull ICommandInvocation intercept(@NotNull ICommandEvent<T> event, @NotNull ICommandInvocation invocation) {
+
+        if (this.interceptors.length == 0) {
+            return invocation;
+        }
+        return new Interception<>(this.interceptors, 0, event, invocation);
+    }
+
+    /**
+     * Methods of {@link ICommandListener} that can be dispatched through a {@link ListenerChain}.
+     */
+    public enum Callback {
+        COMMAND_EXECUTION("onCommandExecution", ICommandEvent.class),
+        COMMAND_EXCEPTION("onCommandException", ICommandEvent.class, Exception.class),
+        SYNTAX_ERROR("onSyntaxError", ICommandContext.class),
+        CONTEXT_CREATED("onContextCreated", ICommandContext.class),
+        COMMAND_NOT_FOUND("onCommandNotFound", ICommandHandler.class, Object.class, String.class),
+        OVERLOAD("onOverload", ICommandHandler.class, Object.class, String.class),
+        RATE_LIMITED("onRateLimited", ICommandEvent.class, Duration.class),
+        CACHE_HIT("onCacheHit", ICommandEvent.class);
+
+        private final String     name;
+        private final Class<?>[] parameterTypes;
+
+        Callback(String name, Class<?>... parameterTypes) {
+
+            this.name           = name;
+            this.parameterTypes = parameterTypes;
+        }
+
+        private boolean isOverriddenBy(ICommandListener<?> listener) {
+
+            try {
+                Method method = listener.getClass().getMethod(this.name, this.parameterTypes);
+                return method.getDeclaringClass() != ICommandListener.class;
+            } catch (NoSuchMethodException e) {
+                // Unreachable for an ICommandListener, but calling the listener is always correct.
+                return true;
+            }
+        }
+    }
+
+    /**
+     * {@link ICommandInvocation} running one {@link ICommandInterceptor}, which proceeds by invoking the next one.
+     */
+    private static final class Interception<T> implements ICommandInvocation {
+
+        private final ICommandInterceptor<T>[] interceptors;
+        private final int                      index;
+        private final ICommandEvent<T>         event;
+        private final ICommandInvocation       invocation;
+
+        private Interception(ICommandInterceptor<T>[] interceptors, int index, ICommandEvent<T> event, ICommandInvocation invocation) {
+
+            this.interceptors = interceptors;
+            this.index        = index;
+            this.event        = event;
+            this.invocation   = invocation;
+        }
+
+        @Override
+        public boolean isCompleted() {
+
+            return this.invocation.isCompleted();
+        }
+
+        @Override
+        public @Nullable Method getMethod() {
+
+            return this.invocation.getMethod();
+        }
+
+        @Override
+        public @NotNull IExecutionResult invoke() throws Exception {
+
+            int                next  = this.index + 1;
+            ICommandInvocation inner = next == this.interceptors.length
+                    ? this.invocation
+                    : new Interception<>(this.interceptors, next, this.event, this.invocation);
+
+            return this.interceptors[this.index].intercept(this.event, inner);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package fr.alexpado.commandr.impl;
+
+import fr.alexpado.commandr.annotations.RateLimit;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keep track of the {@link RateLimit} buckets of each emitter, for every annotated command class and method.
+ * Buckets are owned by a command instance: two instances of the same class registered under different labels are
+ * limited independently.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} updated with a compare-and-set loop, following the generic cell rate
+ * algorithm: the bucket stores the time at which the emitter will have regained every permit. A bucket whose time has
+ * passed is equivalent to a missing bucket, which allows idle buckets to be evicted at any time.
+ * <p>
+ * Idle buckets are evicted incrementally: every second, a sweep round starts, and every call to
+ * {@link #tryAcquire(Object, AnnotatedElement, Object)} made during the round inspects a small slice of the buckets.
+ * No call ever pays for a scan of every bucket.
+ */
+public final class RateLimits {
+
+    private static final long    SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private static final int     SWEEP_SLICE    = 64;
+    private static final Limiter UNLIMITED      = new Limiter(0, 0);
+
+    private static final ClassValue<Boolean> METHOD_LIMITS = new ClassValue<>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(RateLimit.class)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    };
+
+    private final ConcurrentHashMap<Object, ConcurrentHashMap<AnnotatedElement, Limiter>> limiters;
+    private final List<Limiter>                                                           limited;
+    private final AtomicBoolean                                                           sweeping;
+    private volatile long                                                                 nextSweep;
+
+    // Position of the current sweep round, only accessed by the thread holding the sweeping flag.
+    private int                                     sweptLimiter;
+    private Iterator<Map.Entry<Object, AtomicLong>> sweptBuckets;
+
+    public RateLimits() {
+
+        this.limiters  = new ConcurrentHashMap<>();
+        this.limited   = new CopyOnWriteArrayList<>();
+        this.sweeping  = new AtomicBoolean();
+        this.nextSweep = System.nanoTime() + SWEEP_INTERVAL;
+    }
+
+    /**
+     * Check if a method declared by the provided command class is annotated with {@link RateLimit}. Like
+     * {@link fr.alexpado.commandr.impl.plan.CommandPlan}, inherited methods are not considered. The result is computed
+     * once per class.
+     *
+     * @param type
+     *         The command class.
+     *
+     * @return True if at least one method is rate limited, false otherwise.
+     */
+    public static boolean hasMethodLimits(@NotNull Class<?> type) {
+
+        return METHOD_LIMITS.get(type);
+    }
+
+    /**
+     * Try to consume a permit of the {@link RateLimit} declared on the provided element for the provided emitter.
+     *
+     * @param owner
+     *         The command instance owning the buckets, usually the {@link fr.alexpado.commandr.interfaces.ICommand}.
+     * @param element
+     *         The command class or method that may be annotated with {@link RateLimit}.
+     * @param emitter
+     *         The key identifying the emitter.
+     *
+     * @return Zero if the execution is allowed, otherwise the amount of nanoseconds until the next permit.
+     */
+    public long tryAcquire(@NotNull Object owner, @NotNull AnnotatedElement element, @NotNull Object emitter) {
+
+        ConcurrentHashMap<AnnotatedElement, Limiter> owned = this.limiters.get(owner);
+
+        if (owned == null) {
+            owned = this.limiters.computeIfAbsent(owner, key -> new ConcurrentHashMap<>());
+        }
+
+        Limiter limiter = owned.get(element);
+
+        if (limiter == null) {
+            limiter = owned.computeIfAbsent(element, this::createLimiter);
+        }
+
+        if (limiter == UNLIMITED) {
+            return 0;
+        }
+
+        long now = System.nanoTime();
+
+        if (now - this.nextSweep >= 0 && this.sweeping.compareAndSet(false, true)) {
+            try {
+                this.sweep(now);
+            } finally {
+                this.sweeping.set(false);
+            }
+        }
+
+        return limiter.tryAcquire(emitter, now);
+    }
+
+    /**
+     * Remove every bucket whose emitter has regained all of its permits.
+     */
+    public void evictIdleBuckets() {
+
+        this.evict(System.nanoTime());
+    }
+
+    /**
+     * Retrieve the amount of buckets currently held, across every command class and method.
+     *
+     * @return The amount of buckets.
+     */
+    public int getBucketCount() {
+
+        int count = 0;
+        for (Limiter limiter : this.limited) {
+            count += limiter.buckets.size();
+        }
+        return count;
+    }
+
+    private void evict(long now) {
+
+        // An emitter acquiring a permit while its bucket is being evicted may be granted one extra permit at most.
+        for (Limiter limiter : this.limited) {
+            limiter.buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+        }
+    }
+
+    /**
+     * Inspect the next {@link #SWEEP_SLICE} buckets of the current sweep round, evicting the idle ones. Once every
+     * bucket has been inspected, the next round is scheduled.
+     */
+    private void sweep(long now) {
+
+        for (int inspected = 0; inspected < SWEEP_SLICE; inspected++) {
+            while (this.sweptBuckets == null || !this.sweptBuckets.hasNext()) {
+                if (this.sweptLimiter == this.limited.size()) {
+                    this.sweptLimiter = 0;
+                    this.sweptBuckets = null;
+                    this.nextSweep    = now + SWEEP_INTERVAL;
+                    return;
+                }
+                this.sweptBuckets = this.limited.get(this.sweptLimiter++).buckets.entrySet().iterator();
+            }
+
+            if (this.sweptBuckets.next().getValue().get() - now <= 0) {
+                this.sweptBuckets.remove();
+            }
+        }
+    }
+
+    private Limiter createLimiter(AnnotatedElement element) {
+
+        RateLimit limit = element.getAnnotation(RateLimit.class);
+
+        if (limit == null) {
+            return UNLIMITED;
+        }
+
+        if (limit.permits() < 1 || limit.period() < 1) {
+            throw new IllegalStateException("Invalid rate limit on " + element + ": permits and period must be positive.");
+        }
+
+        long    period   = limit.unit().toNanos(limit.period());
+        long    interval = Math.max(1, period / limit.permits());
+        Limiter limiter  = new Limiter(interval, period - interval);
+        this.limited.add(limiter);
+        return limiter;
+    }
+
+    private static final class Limiter {
+
+        private final long                                  interval;
+        private final long                                  tolerance;
+        private final ConcurrentHashMap<Object, AtomicLong> buckets;
+
+        Limiter(long interval, long tolerance) {
+
+            this.interval  = interval;
+            this.tolerance = tolerance;
+            this.buckets   = new ConcurrentHashMap<>();
+        }
+
+        long tryAcquire(Object emitter, long now) {
+
+            AtomicLong bucket = this.buckets.get(emitter);
+
+            if (bucket == null) {
+                AtomicLong created = new AtomicLong(now + this.interval);
+                bucket = this.buckets.putIfAbsent(emitter, created);
+
+                if (bucket == null) {
+                    return 0;
+                }
+            }
+
+            while (true) {
+                long full = bucket.get();
+                long base = full - now > 0 ? full : now;
+                long wait = base - now - this.tolerance;
+
+                if (wait > 0) {
+                    return wait;
+                }
+
+                if (bucket.compareAndSet(full, base + this.interval)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package fr.alexpado.commandr.impl;
+
+import fr.alexpado.commandr.interfaces.ICommand;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable report of a bulk registration of {@link ICommand}s, giving the time spent compiling each of them.
+ */
+public final class RegistrationReport {
+
+    private final List<Entry> entries;
+    private final long        totalTime;
+
+    /**
+     * Create a new {@link RegistrationReport}.
+     *
+     * @param entries
+     *         The {@link Entry} of every registered {@link ICommand}.
+     * @param totalTime
+     *         The time spent registering the {@link ICommand}s, in nanoseconds.
+     */
+    public RegistrationReport(@NotNull List<Entry> entries, long totalTime) {
+
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong((Entry entry) -> entry.compileTime).reversed());
+
+        this.entries   = Collections.unmodifiableList(sorted);
+        this.totalTime = totalTime;
+    }
+
+    /**
+     * Retrieve the {@link Entry} of every registered {@link ICommand}, the slowest to compile first.
+     *
+     * @return An unmodifiable {@link List} of {@link Entry}.
+     */
+    public @NotNull List<Entry> getEntries() {
+
+        return this.entries;
+    }
+
+    /**
+     * Retrieve the amount of registered {@link ICommand}s.
+     *
+     * @return The amount of {@link ICommand}s.
+     */
+    public int getCommandCount() {
+
+        return this.entries.size();
+    }
+
+    /**
+     * Retrieve the time elapsed during the whole registration.
+     *
+     * @param unit
+     *         The {@link TimeUnit} of the returned value.
+     *
+     * @return The registration time.
+     */
+    public long getTotalTime(@NotNull TimeUnit unit) {
+
+        return unit.convert(this.totalTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Retrieve the sum of the compile time of every {@link ICommand}. As commands are compiled in parallel, this may
+     * exceed {@link #getTotalTime(TimeUnit)}.
+     *
+     * @param unit
+     *         The {@link TimeUnit} of the returned value.
+     *
+     * @return The cumulated compile time.
+     */
+    public long getCompileTime(@NotNull TimeUnit unit) {
+
+        return unit.convert(this.entries.stream().mapToLong(entry -> entry.compileTime).sum(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder builder = new StringBuilder(String.format(
+                "Registered %d commands in %.3f ms (%.3f ms of compilation)",
+                this.entries.size(),
+                this.totalTime / 1e6,
+                this.getCompileTime(TimeUnit.NANOSECONDS) / 1e6
+        ));
+
+        for (Entry entry : this.entries) {
+            builder.append(String.format("%n  %-24s %10.3f ms  %s", entry.label, entry.compileTime / 1e6, entry.type.getName()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Compile time of a single registered {@link ICommand}.
+     */
+    public static final class Entry {
+
+        private final String   label;
+        private final Class<?> type;
+        private final long     compileTime;
+
+        /**
+         * Create a new {@link Entry}.
+         *
+         * @param label
+         *         The label of the {@link ICommand}.
+         * @param type
+         *         The class of the {@link ICommand}.
+         * @param compileTime
+         *         The time spent compiling the {@link ICommand}, in nanoseconds.
+         */
+        public Entry(@NotNull String label, @NotNull Class<?> type, long compileTime) {
+
+            this.label       = label;
+            this.type        = type;
+            this.compileTime = compileTime;
+        }
+
+        /**
+         * Retrieve the label of the {@link ICommand}.
+         *
+         * @return The label.
+         */
+        public @NotNull String getLabel() {
+
+            return this.label;
+        }
+
+        /**
+         * Retrieve the class of the {@link ICommand}.
+         *
+         * @return A class.
+         */
+        public @NotNull Class<?> getType() {
+
+            return this.type;
+        }
+
+        /**
+         * Retrieve the time spent compiling the {@link ICommand}. An {@link ICommand} whose class has already been
+         * compiled reuses its plan, and reports almost no time.
+         *
+         * @param unit
+         *         The {@link TimeUnit} of the returned value.
+         *
+         * @return The compile time.
+         */
+        public long getCompileTime(@NotNull TimeUnit unit) {
+
+            return unit.convert(this.compileTime, TimeUnit.NANOSECONDS);
+        }
+    }
+}
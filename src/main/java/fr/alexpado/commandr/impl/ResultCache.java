@@ -0,0 +1,229 @@
+package fr.alexpado.commandr.impl;
+
+import fr.alexpado.commandr.annotations.Cacheable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Size-bounded cache of the values returned by a method annotated with {@link Cacheable}, evicting the least recently
+ * used values first and expiring values after their time to live.
+ * <p>
+ * Values are read without any lock: each read only stamps the time of the access on its entry. When a value is cached
+ * while the cache is full, a small sample of entries is inspected, taken in turn from the whole cache, and the least
+ * recently used one is evicted. The eviction order is therefore approximate, but exact as long as the cache is not
+ * larger than the sample.
+ */
+public final class ResultCache {
+
+    /**
+     * Value returned by {@link #get(Key)} when no value is cached, as null is a valid cached value.
+     */
+    public static final Object MISS = new Object();
+
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final int                           maxSize;
+    private final long                          ttl;
+    private final ConcurrentHashMap<Key, Entry> entries;
+    private final Object                        evictionLock;
+
+    // Position of the eviction sampling, only accessed by the thread holding the eviction lock.
+    private Iterator<Map.Entry<Key, Entry>> cursor;
+
+    /**
+     * Create a new {@link ResultCache} configured by the provided {@link Cacheable}.
+     *
+     * @param cacheable
+     *         The {@link Cacheable} annotation of the method.
+     */
+    public ResultCache(@NotNull Cacheable cacheable) {
+
+        if (cacheable.maxSize() < 1) {
+            throw new IllegalStateException("The size of a @Cacheable cache must be positive.");
+        }
+
+        this.maxSize      = cacheable.maxSize();
+        this.ttl          = cacheable.ttl() > 0 ? cacheable.unit().toNanos(cacheable.ttl()) : 0;
+        this.entries      = new ConcurrentHashMap<>();
+        this.evictionLock = new Object();
+    }
+
+    /**
+     * Retrieve the value cached for the provided {@link Key}.
+     *
+     * @param key
+     *         The {@link Key} of the value.
+     *
+     * @return The cached value, or {@link #MISS} if no value is cached or if it expired.
+     */
+    public @Nullable Object get(@NotNull Key key) {
+
+        Entry entry = this.entries.get(key);
+
+        if (entry == null) {
+            return MISS;
+        }
+
+        long now = System.nanoTime();
+        if (this.ttl > 0 && now - entry.expiresAt > 0) {
+            this.entries.remove(key, entry);
+            return MISS;
+        }
+
+        entry.accessedAt = now;
+        return entry.value;
+    }
+
+    /**
+     * Cache the provided value under the provided {@link Key}, evicting the least recently used value if needed.
+     *
+     * @param key
+     *         The {@link Key} of the value.
+     * @param value
+     *         The value to cache.
+     */
+    public void put(@NotNull Key key, @Nullable Object value) {
+
+        long now = System.nanoTime();
+        this.entries.put(key, new Entry(value, now, now + this.ttl));
+
+        if (this.entries.size() > this.maxSize) {
+            synchronized (this.evictionLock) {
+                // Other values may have been cached meanwhile: keep evicting until the cache fits again.
+                boolean evicted = true;
+                while (evicted && this.entries.size() > this.maxSize) {
+                    evicted = this.evictOne(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evict the least recently used entry among the next {@link #EVICTION_SAMPLE} entries, ignoring the provided
+     * {@link Key} which has just been cached. Must be called while holding the eviction lock.
+     *
+     * @return True if an entry has been sampled, even if it was removed meanwhile, false if there was nothing to
+     *         evict.
+     */
+    private boolean evictOne(Key excluded) {
+
+        Map.Entry<Key, Entry> eldest  = null;
+        int                   sampled = 0;
+        boolean               wrapped = false;
+
+        while (sampled < EVICTION_SAMPLE) {
+            if (this.cursor == null || !this.cursor.hasNext()) {
+                // Stop once the whole cache has been sampled, which only happens on small caches.
+                if (wrapped) {
+                    break;
+                }
+                this.cursor = this.entries.entrySet().iterator();
+                wrapped     = true;
+                continue;
+            }
+
+            Map.Entry<Key, Entry> candidate = this.cursor.next();
+            if (candidate.getKey().equals(excluded)) {
+                continue;
+            }
+
+            sampled++;
+            if (eldest == null || candidate.getValue().accessedAt - eldest.getValue().accessedAt < 0) {
+                eldest = candidate;
+            }
+        }
+
+        if (eldest == null) {
+            return false;
+        }
+
+        this.entries.remove(eldest.getKey(), eldest.getValue());
+        return true;
+    }
+
+    /**
+     * Remove every cached value.
+     */
+    public void invalidate() {
+
+        this.entries.clear();
+    }
+
+    /**
+     * Remove every value cached for the provided emitter.
+     *
+     * @param emitter
+     *         The emitter for which the values should be removed.
+     */
+    public void invalidate(@NotNull Object emitter) {
+
+        this.entries.keySet().removeIf(key -> emitter.equals(key.emitter));
+    }
+
+    /**
+     * Retrieve the amount of values currently cached, including expired values not yet removed.
+     *
+     * @return The amount of cached values.
+     */
+    public int size() {
+
+        return this.entries.size();
+    }
+
+    /**
+     * Key identifying a cached value: the values of the parameters annotated with
+     * {@link fr.alexpado.commandr.annotations.Param} and, when the cache is scoped per emitter, the emitter.
+     */
+    public static final class Key {
+
+        private final List<Object> values;
+        private final Object       emitter;
+        private final int          hash;
+
+        public Key(@NotNull List<Object> values, @Nullable Object emitter) {
+
+            this.values  = values;
+            this.emitter = emitter;
+            this.hash    = 31 * values.hashCode() + Objects.hashCode(emitter);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return this.hash == key.hash && this.values.equals(key.values) && Objects.equals(this.emitter, key.emitter);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return this.hash;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object  value;
+        private final long    expiresAt;
+        private volatile long accessedAt;
+
+        Entry(Object value, long accessedAt, long expiresAt) {
+
+            this.value      = value;
+            this.accessedAt = accessedAt;
+            this.expiresAt  = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package fr.alexpado.commandr.impl;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads, which are only available from Java 21. As this library targets older JDK, the
+ * virtual-thread-per-task {@link ExecutorService} is looked up reflectively.
+ */
+public final class VirtualThreads {
+
+    private static final Method FACTORY = findFactory();
+
+    private VirtualThreads() {}
+
+    private static Method findFactory() {
+
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Check if the running JDK supports virtual threads.
+     *
+     * @return True if virtual threads are supported, false otherwise.
+     */
+    public static boolean isSupported() {
+
+        return FACTORY != null;
+    }
+
+    /**
+     * Create an {@link ExecutorService} starting a new virtual thread for each task.
+     *
+     * @return An {@link ExecutorService} using virtual threads.
+     *
+     * @throws UnsupportedOperationException
+     *         Threw if the running JDK does not support virtual threads.
+     */
+    public static @NotNull ExecutorService newPerTaskExecutor() {
+
+        if (FACTORY == null) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JDK.");
+        }
+
+        try {
+            return (ExecutorService) FACTORY.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Unable to create a virtual thread executor.", e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package fr.alexpado.commandr.impl.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering the resolution of the arguments of the matched method.
+ */
+@Name("fr.alexpado.commandr.Binding")
+@Label("Parameter Binding")
+@Description("Resolution of the arguments of the matched method")
+public class BindingEvent extends CommandPhaseEvent {}
@@ -0,0 +1,41 @@
+package fr.alexpado.commandr.impl.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.lang.reflect.Method;
+
+/**
+ * Base of the JFR events emitted for each phase of the handling of a message. Every event is disabled by default: it
+ * must be enabled in the JFR recording settings, for example with
+ * {@code -XX:StartFlightRecording:settings=profile,+fr.alexpado.commandr.Execution#enabled=true}. While disabled, the
+ * events cost nothing more than the JIT is able to remove.
+ */
+@Enabled(false)
+@StackTrace(false)
+@Category({"Commandr"})
+public abstract class CommandPhaseEvent extends Event {
+
+    @Label("Label")
+    public String label;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Outcome")
+    public String outcome;
+
+    /**
+     * Define the {@link Method} of this event, as {@code Class#method}.
+     *
+     * @param method
+     *         The {@link Method}, or null if unknown.
+     */
+    public void setMethod(Method method) {
+
+        this.method = method == null ? null : method.getDeclaringClass().getName() + "#" + method.getName();
+    }
+}
@@ -0,0 +1,13 @@
+package fr.alexpado.commandr.impl.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering the context creation and the notification of the listeners before an execution.
+ */
+@Name("fr.alexpado.commandr.Dispatch")
+@Label("Command Dispatch")
+@Description("Context creation, rate limiting and listeners")
+public class DispatchEvent extends CommandPhaseEvent {}
@@ -0,0 +1,13 @@
+package fr.alexpado.commandr.impl.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering the execution of the command body.
+ */
+@Name("fr.alexpado.commandr.Execution")
+@Label("Command Execution")
+@Description("Execution of the command body")
+public class ExecutionEvent extends CommandPhaseEvent {}
@@ -0,0 +1,13 @@
+package fr.alexpado.commandr.impl.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering the matching of the user input against the syntaxes of a command.
+ */
+@Name("fr.alexpado.commandr.Matching")
+@Label("Syntax Matching")
+@Description("Matching of the user input against the syntaxes")
+public class MatchingEvent extends CommandPhaseEvent {}
@@ -0,0 +1,13 @@
+package fr.alexpado.commandr.impl.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering the prefix and label resolution of a message.
+ */
+@Name("fr.alexpado.commandr.Resolution")
+@Label("Command Resolution")
+@Description("Prefix and label resolution")
+public class ResolutionEvent extends CommandPhaseEvent {}
@@ -0,0 +1,128 @@
+package fr.alexpado.commandr.impl.metrics;
+
+import fr.alexpado.commandr.interfaces.ICommand;
+import fr.alexpado.commandr.interfaces.ICommandMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free {@link ICommandMetrics} implementation, keeping outcome counters, in-flight gauges and a
+ * {@link LatencyHistogram} per command label and per {@link Method}.
+ */
+public class CommandMetrics implements ICommandMetrics {
+
+    private final LongAdder                                   notFound;
+    private final LongAdder[]                                 outcomes;
+    private final AtomicLong                                  inFlight;
+    private final ConcurrentHashMap<ICommand<?>, Label>       labels;
+    private final ConcurrentHashMap<Method, LatencyHistogram> methods;
+
+    public CommandMetrics() {
+
+        this.notFound = new LongAdder();
+        this.outcomes = new LongAdder[Outcome.values().length];
+        this.inFlight = new AtomicLong();
+        this.labels   = new ConcurrentHashMap<>();
+        this.methods  = new ConcurrentHashMap<>();
+
+        for (int i = 0; i < this.outcomes.length; i++) {
+            this.outcomes[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+
+        return true;
+    }
+
+    @Override
+    public void recordNotFound() {
+
+        this.notFound.increment();
+    }
+
+    @Override
+    public void recordStarted(@NotNull ICommand<?> command) {
+
+        this.inFlight.incrementAndGet();
+        this.getLabel(command).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void recordCompleted(@NotNull ICommand<?> command, @Nullable Method method, @NotNull Outcome outcome, long duration) {
+
+        Label label = this.getLabel(command);
+
+        this.inFlight.decrementAndGet();
+        this.outcomes[outcome.ordinal()].increment();
+        label.inFlight.decrementAndGet();
+        label.latency.record(duration);
+
+        if (method != null) {
+            LatencyHistogram histogram = this.methods.get(method);
+
+            if (histogram == null) {
+                histogram = this.methods.computeIfAbsent(method, key -> new LatencyHistogram());
+            }
+            histogram.record(duration);
+        }
+    }
+
+    private Label getLabel(ICommand<?> command) {
+
+        Label label = this.labels.get(command);
+
+        if (label == null) {
+            label = this.labels.computeIfAbsent(command, key -> new Label(key.getMeta().getLabel()));
+        }
+        return label;
+    }
+
+    @Override
+    public @NotNull MetricsSnapshot getSnapshot() {
+
+        Map<Outcome, Long>             outcomes        = new EnumMap<>(Outcome.class);
+        Map<String, Long>              labelInFlight   = new HashMap<>();
+        Map<String, HistogramSnapshot> labelLatencies  = new HashMap<>();
+        Map<String, HistogramSnapshot> methodLatencies = new HashMap<>();
+
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, this.outcomes[outcome.ordinal()].sum());
+        }
+
+        for (Label label : this.labels.values()) {
+            labelInFlight.put(label.name, label.inFlight.get());
+            labelLatencies.put(label.name, label.latency.getSnapshot());
+        }
+
+        this.methods.forEach((method, histogram) -> methodLatencies.put(
+                method.getDeclaringClass().getName() + "#" + method.getName(),
+                histogram.getSnapshot()
+        ));
+
+        return new MetricsSnapshot(this.notFound.sum(), outcomes, this.inFlight.get(), labelInFlight, labelLatencies, methodLatencies);
+    }
+
+    private static final class Label {
+
+        private final String           name;
+        private final AtomicLong       inFlight;
+        private final LatencyHistogram latency;
+
+        Label(String name) {
+
+            this.name     = name;
+            this.inFlight = new AtomicLong();
+            this.latency  = new LatencyHistogram();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package fr.alexpado.commandr.impl.metrics;
+
+/**
+ * Immutable copy of a {@link LatencyHistogram}. Every value is expressed in nanoseconds.
+ */
+public final class HistogramSnapshot {
+
+    private final long[] buckets;
+    private final long   count;
+    private final long   sum;
+    private final long   max;
+
+    HistogramSnapshot(long[] buckets, long count, long sum, long max) {
+
+        this.buckets = buckets;
+        this.count   = count;
+        this.sum     = sum;
+        this.max     = max;
+    }
+
+    /**
+     * Retrieve the amount of recorded values.
+     *
+     * @return The amount of recorded values.
+     */
+    public long getCount() {
+
+        return this.count;
+    }
+
+    /**
+     * Retrieve the highest recorded value.
+     *
+     * @return The highest value, or zero if nothing was recorded.
+     */
+    public long getMax() {
+
+        return this.max;
+    }
+
+    /**
+     * Retrieve the mean of the recorded values.
+     *
+     * @return The mean value, or zero if nothing was recorded.
+     */
+    public double getMean() {
+
+        return this.count == 0 ? 0 : (double) this.sum / this.count;
+    }
+
+    /**
+     * Retrieve the value below which the provided percentage of the recorded values fall. The returned value is the
+     * upper bound of the bucket holding the percentile, which never exceeds {@link #getMax()}.
+     *
+     * @param percentile
+     *         The percentile, between 0 and 100.
+     *
+     * @return The value at the percentile, or zero if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+
+        long total = 0;
+        for (long bucket : this.buckets) {
+            total += bucket;
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen   = 0;
+
+        for (int i = 0; i < this.buckets.length; i++) {
+            seen += this.buckets[i];
+
+            if (seen >= target) {
+                long upper = i + 1 < this.buckets.length ? LatencyHistogram.lowestValueAt(i + 1) - 1 : Long.MAX_VALUE;
+                return Math.min(upper, this.max);
+            }
+        }
+        return this.max;
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format(
+                "HistogramSnapshot{count=%d, mean=%.0f, p50=%d, p99=%d, max=%d}",
+                this.count,
+                this.getMean(),
+                this.getValueAtPercentile(50),
+                this.getValueAtPercentile(99),
+                this.max
+        );
+    }
+}
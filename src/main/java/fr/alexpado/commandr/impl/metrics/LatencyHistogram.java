@@ -0,0 +1,105 @@
+package fr.alexpado.commandr.impl.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram using log-linear buckets, in the spirit of HdrHistogram: each power of two is split into
+ * {@value #SUB_BUCKETS} buckets, so that any recorded value is known with a relative error below 12.5%, whatever its
+ * magnitude. Values are expressed in nanoseconds, and values above 2^{@value #MAX_EXPONENT} nanoseconds (about 18
+ * minutes) are recorded in the last bucket.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS     = 3;
+    private static final int SUB_BUCKETS  = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS      = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder       count;
+    private final LongAdder       sum;
+    private final AtomicLong      max;
+
+    public LatencyHistogram() {
+
+        this.buckets = new AtomicLongArray(BUCKETS);
+        this.count   = new LongAdder();
+        this.sum     = new LongAdder();
+        this.max     = new AtomicLong();
+    }
+
+    /**
+     * Retrieve the index of the bucket holding the provided value.
+     *
+     * @param value
+     *         A positive value.
+     *
+     * @return The index of the bucket.
+     */
+    static int indexOf(long value) {
+
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(0, value);
+        }
+
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        int sub      = (int) (Math.min(value, (2L << MAX_EXPONENT) - 1) >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Retrieve the lowest value held by the bucket at the provided index.
+     *
+     * @param index
+     *         The index of the bucket.
+     *
+     * @return The lowest value of the bucket.
+     */
+    static long lowestValueAt(int index) {
+
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        int sub      = index % SUB_BUCKETS;
+        return (1L << exponent) | ((long) sub << (exponent - SUB_BITS));
+    }
+
+    /**
+     * Record the provided latency.
+     *
+     * @param nanos
+     *         The latency, in nanoseconds.
+     */
+    public void record(long nanos) {
+
+        this.buckets.incrementAndGet(indexOf(nanos));
+        this.count.increment();
+        this.sum.add(nanos);
+
+        long max = this.max.get();
+        while (nanos > max && !this.max.compareAndSet(max, nanos)) {
+            max = this.max.get();
+        }
+    }
+
+    /**
+     * Create an immutable copy of this {@link LatencyHistogram}. As recording is not stopped meanwhile, the copy may
+     * be slightly inconsistent, such as having a count not matching exactly the sum of the buckets.
+     *
+     * @return A {@link HistogramSnapshot}.
+     */
+    public @NotNull HistogramSnapshot getSnapshot() {
+
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets.get(i);
+        }
+        return new HistogramSnapshot(counts, this.count.sum(), this.sum.sum(), this.max.get());
+    }
+}
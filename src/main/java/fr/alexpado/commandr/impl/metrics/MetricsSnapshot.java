@@ -0,0 +1,115 @@
+package fr.alexpado.commandr.impl.metrics;
+
+import fr.alexpado.commandr.interfaces.ICommandMetrics;
+import fr.alexpado.commandr.interfaces.ICommandMetrics.Outcome;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable copy of the metrics recorded by an {@link ICommandMetrics}, meant to be exported to a monitoring system.
+ */
+public final class MetricsSnapshot {
+
+    /**
+     * Snapshot of metrics where nothing has been recorded.
+     */
+    public static final MetricsSnapshot EMPTY = new MetricsSnapshot(
+            0,
+            new EnumMap<>(Outcome.class),
+            0,
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            Collections.emptyMap()
+    );
+
+    private final long                           notFound;
+    private final Map<Outcome, Long>             outcomes;
+    private final long                           inFlight;
+    private final Map<String, Long>              labelInFlight;
+    private final Map<String, HistogramSnapshot> labelLatencies;
+    private final Map<String, HistogramSnapshot> methodLatencies;
+
+    public MetricsSnapshot(long notFound, @NotNull Map<Outcome, Long> outcomes, long inFlight, @NotNull Map<String, Long> labelInFlight, @NotNull Map<String, HistogramSnapshot> labelLatencies, @NotNull Map<String, HistogramSnapshot> methodLatencies) {
+
+        this.notFound        = notFound;
+        this.outcomes        = Collections.unmodifiableMap(outcomes);
+        this.inFlight        = inFlight;
+        this.labelInFlight   = Collections.unmodifiableMap(labelInFlight);
+        this.labelLatencies  = Collections.unmodifiableMap(labelLatencies);
+        this.methodLatencies = Collections.unmodifiableMap(methodLatencies);
+    }
+
+    /**
+     * Retrieve the amount of messages for which no command could be found.
+     *
+     * @return The amount of messages.
+     */
+    public long getNotFoundCount() {
+
+        return this.notFound;
+    }
+
+    /**
+     * Retrieve the amount of messages handled with the provided {@link Outcome}.
+     *
+     * @param outcome
+     *         The {@link Outcome} to count.
+     *
+     * @return The amount of messages.
+     */
+    public long getCount(@NotNull Outcome outcome) {
+
+        return this.outcomes.getOrDefault(outcome, 0L);
+    }
+
+    /**
+     * Retrieve the amount of messages being handled when the snapshot was taken.
+     *
+     * @return The amount of messages.
+     */
+    public long getInFlight() {
+
+        return this.inFlight;
+    }
+
+    /**
+     * Retrieve the amount of messages being handled when the snapshot was taken, for each command label.
+     *
+     * @return An unmodifiable {@link Map} associating each label to its amount of messages.
+     */
+    public @NotNull Map<String, Long> getInFlightByLabel() {
+
+        return this.labelInFlight;
+    }
+
+    /**
+     * Retrieve the latency of each command label, from the moment the command has been found to the end of its
+     * execution, whatever the {@link Outcome}.
+     *
+     * @return An unmodifiable {@link Map} associating each label to its {@link HistogramSnapshot}.
+     */
+    public @NotNull Map<String, HistogramSnapshot> getLatencyByLabel() {
+
+        return this.labelLatencies;
+    }
+
+    /**
+     * Retrieve the latency of each method annotated with {@link fr.alexpado.commandr.annotations.Command}, identified
+     * as {@code fully.qualified.Class#method}.
+     *
+     * @return An unmodifiable {@link Map} associating each method to its {@link HistogramSnapshot}.
+     */
+    public @NotNull Map<String, HistogramSnapshot> getLatencyByMethod() {
+
+        return this.methodLatencies;
+    }
+
+    @Override
+    public String toString() {
+
+        return "MetricsSnapshot{notFound=" + this.notFound + ", outcomes=" + this.outcomes + ", inFlight=" + this.inFlight + "}";
+    }
+}
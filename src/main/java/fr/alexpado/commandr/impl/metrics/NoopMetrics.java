@@ -0,0 +1,39 @@
+package fr.alexpado.commandr.impl.metrics;
+
+import fr.alexpado.commandr.interfaces.ICommand;
+import fr.alexpado.commandr.interfaces.ICommandMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+
+/**
+ * {@link ICommandMetrics} recording nothing.
+ */
+public final class NoopMetrics implements ICommandMetrics {
+
+    public static final NoopMetrics INSTANCE = new NoopMetrics();
+
+    private NoopMetrics() {}
+
+    @Override
+    public boolean isEnabled() {
+
+        return false;
+    }
+
+    @Override
+    public void recordNotFound() {}
+
+    @Override
+    public void recordStarted(@NotNull ICommand<?> command) {}
+
+    @Override
+    public void recordCompleted(@NotNull ICommand<?> command, @Nullable Method method, @NotNull Outcome outcome, long duration) {}
+
+    @Override
+    public @NotNull MetricsSnapshot getSnapshot() {
+
+        return MetricsSnapshot.EMPTY;
+    }
+}
@@ -0,0 +1,186 @@
+package fr.alexpado.commandr.impl.plan;
+
+import fr.alexpado.commandr.annotations.Command;
+import fr.alexpado.commandr.impl.CommandImpl;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base class of the dispatchers generated at compile time by the {@code commandr-processor} annotation processor.
+ * <p>
+ * A dispatcher is generated for each {@link CommandImpl} subclass declaring methods annotated with {@link Command}. It
+ * declares those methods along with their syntax and calls them directly, without any reflective invocation. When a
+ * {@link CommandPlan} is compiled, the dispatcher of its class is used if one can be found, and the class is inspected
+ * using reflection otherwise.
+ * <p>
+ * The dispatcher of a class {@code com.example.Outer.Inner} is named {@code com.example.Outer_Inner_CommandrDispatcher}.
+ */
+public abstract class CommandDispatcher {
+
+    /**
+     * Suffix appended to the name of a class to obtain the name of its dispatcher.
+     */
+    public static final String SUFFIX = "_CommandrDispatcher";
+
+    private final Class<?>         type;
+    private final List<Definition> definitions = new ArrayList<>();
+
+    /**
+     * Create a new {@link CommandDispatcher} for the provided class.
+     *
+     * @param type
+     *         The {@link CommandImpl} subclass whose methods are dispatched.
+     */
+    protected CommandDispatcher(@NotNull Class<?> type) {
+
+        this.type = type;
+    }
+
+    /**
+     * Retrieve the dispatcher generated for the provided class.
+     *
+     * @param type
+     *         The {@link CommandImpl} subclass.
+     *
+     * @return A {@link CommandDispatcher}, or {@code null} if none has been generated for this class.
+     */
+    public static @Nullable CommandDispatcher find(@NotNull Class<?> type) {
+
+        String name           = type.getName();
+        int    index          = name.lastIndexOf('.');
+        String dispatcherName = name.substring(0, index + 1) + name.substring(index + 1).replace('$', '_') + SUFFIX;
+
+        try {
+            Class<?> dispatcherClass = Class.forName(dispatcherName, true, type.getClassLoader());
+
+            if (!CommandDispatcher.class.isAssignableFrom(dispatcherClass)) {
+                return null;
+            }
+
+            CommandDispatcher dispatcher = (CommandDispatcher) dispatcherClass.getDeclaredConstructor().newInstance();
+            return dispatcher.type == type ? dispatcher : null;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create the dispatcher " + dispatcherName, e);
+        }
+    }
+
+    /**
+     * Declare a method annotated with {@link Command}. Methods are identified by their declaration index, starting at
+     * zero, which is the index provided to {@link #invoke(int, Object, Object[])}.
+     *
+     * @param name
+     *         The name of the method.
+     * @param parameterTypes
+     *         The parameter types of the method.
+     * @param syntax
+     *         The syntax string defined in {@link Command#value()}.
+     * @param order
+     *         The priority defined in {@link Command#order()}.
+     */
+    protected final void declare(@NotNull String name, @NotNull Class<?>[] parameterTypes, @NotNull String syntax, int order) {
+
+        this.definitions.add(new Definition(name, parameterTypes, syntax, order));
+    }
+
+    /**
+     * Invoke the method declared at the provided index.
+     *
+     * @param index
+     *         The declaration index of the method.
+     * @param target
+     *         The instance on which the method will be invoked.
+     * @param arguments
+     *         The arguments to pass to the method.
+     *
+     * @return The value returned by the method, or {@code null} if the method returns {@code void}.
+     *
+     * @throws Exception
+     *         Any exception thrown by the method itself.
+     */
+    public abstract @Nullable Object invoke(int index, @NotNull Object target, @NotNull Object[] arguments) throws Exception;
+
+    /**
+     * Retrieve the class whose methods are dispatched by this {@link CommandDispatcher}.
+     *
+     * @return A class.
+     */
+    public @NotNull Class<?> getType() {
+
+        return this.type;
+    }
+
+    /**
+     * Retrieve every method declared by this {@link CommandDispatcher}, by declaration index.
+     *
+     * @return An unmodifiable {@link List} of {@link Definition}.
+     */
+    public @NotNull List<Definition> getDefinitions() {
+
+        return Collections.unmodifiableList(this.definitions);
+    }
+
+    /**
+     * Method declared by a {@link CommandDispatcher}.
+     */
+    public static final class Definition {
+
+        private final String     name;
+        private final Class<?>[] parameterTypes;
+        private final String     syntax;
+        private final int        order;
+
+        private Definition(String name, Class<?>[] parameterTypes, String syntax, int order) {
+
+            this.name           = name;
+            this.parameterTypes = parameterTypes;
+            this.syntax         = syntax;
+            this.order          = order;
+        }
+
+        /**
+         * Retrieve the name of the method.
+         *
+         * @return The method name.
+         */
+        public @NotNull String getName() {
+
+            return this.name;
+        }
+
+        /**
+         * Retrieve the parameter types of the method.
+         *
+         * @return An array of classes.
+         */
+        public @NotNull Class<?>[] getParameterTypes() {
+
+            return this.parameterTypes.clone();
+        }
+
+        /**
+         * Retrieve the syntax string of the method.
+         *
+         * @return A syntax string.
+         */
+        public @NotNull String getSyntax() {
+
+            return this.syntax;
+        }
+
+        /**
+         * Retrieve the priority of the method.
+         *
+         * @return The order priority.
+         */
+        public int getOrder() {
+
+            return this.order;
+        }
+    }
+}
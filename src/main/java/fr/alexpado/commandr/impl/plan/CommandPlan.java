@@ -0,0 +1,289 @@
+package fr.alexpado.commandr.impl.plan;
+
+import fr.alexpado.commandr.annotations.Command;
+import fr.alexpado.commandr.impl.CommandImpl;
+import fr.alexpado.commandr.interfaces.ICommandInput;
+import fr.alexpado.syntaxic.SyntaxService;
+import fr.alexpado.syntaxic.SyntaxUtils;
+import fr.alexpado.syntaxic.interfaces.ISyntaxContainer;
+import fr.alexpado.syntaxic.interfaces.ISyntaxService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable dispatch plan of a {@link CommandImpl} subclass. A plan is computed only once per class, and shared by
+ * every instance of that class.
+ */
+public final class CommandPlan {
+
+    private static final ClassValue<CommandPlan> PLANS = new ClassValue<>() {
+
+        @Override
+        protected CommandPlan computeValue(Class<?> type) {
+
+            CommandPlan restored = RESTORED.remove(type);
+            return restored == null ? compile(type) : restored;
+        }
+    };
+
+    /**
+     * Plans restored from a {@link RegistrySnapshot}, waiting to be requested for the first time.
+     */
+    private static final Map<Class<?>, CommandPlan> RESTORED = new ConcurrentHashMap<>();
+
+    private static final Comparator<MethodPlan> PRIORITY = Comparator
+            .comparingInt(MethodPlan::getOrder)
+            .thenComparing(method -> method.getMethod().getName())
+            .thenComparing(method -> Arrays.toString(method.getMethod().getParameterTypes()));
+
+    private final    Class<?>                   type;
+    private final    List<MethodPlan>           methods;
+    private final    SyntaxTree                 defaultTree;
+    private final    CompiledSyntax             defaultSyntax;
+    private final    boolean                    generated;
+    private volatile ISyntaxService<MethodPlan> defaultService;
+
+    private CommandPlan(Class<?> type, List<MethodPlan> methods, SyntaxTree defaultTree) {
+
+        this.type          = type;
+        this.generated     = methods.stream().anyMatch(method -> method.getInvoker().isGenerated());
+        this.methods       = Collections.unmodifiableList(methods);
+        this.defaultTree   = defaultTree;
+        // The syntax service is only needed when the syntaxes could not be compiled into a tree.
+        this.defaultSyntax = new CompiledSyntax(defaultTree, defaultTree == null ? this.getService(null) : null);
+    }
+
+    private static CommandPlan compile(Class<?> type) {
+
+        CommandDispatcher dispatcher = CommandDispatcher.find(type);
+        List<MethodPlan>  methods    = dispatcher == null ? null : fromDispatcher(dispatcher);
+
+        if (methods == null) {
+            methods = new ArrayList<>();
+            for (Method declaredMethod : type.getDeclaredMethods()) {
+                Command command = declaredMethod.getAnnotation(Command.class);
+
+                if (command != null) {
+                    methods.add(new MethodPlan(declaredMethod, command));
+                }
+            }
+        }
+        methods.sort(PRIORITY);
+
+        return new CommandPlan(type, methods, SyntaxTree.compile(methods, Collections.emptyMap()));
+    }
+
+    /**
+     * Create a {@link CommandPlan} from the content of a {@link RegistrySnapshot}, and make it the plan returned by
+     * {@link #of(Class)} for the provided class. This has no effect if the plan of the class has already been computed.
+     *
+     * @param type
+     *         The {@link CommandImpl} subclass.
+     * @param methods
+     *         Every {@link MethodPlan} of the class, sorted by priority.
+     * @param defaultTree
+     *         The {@link SyntaxTree} compiled without options, or {@code null} if the syntaxes cannot be compiled.
+     *
+     * @return True if the restored plan is used, false if the plan of the class had already been computed.
+     */
+    static boolean restore(Class<?> type, List<MethodPlan> methods, SyntaxTree defaultTree) {
+
+        CommandPlan plan = new CommandPlan(type, methods, defaultTree);
+        RESTORED.put(type, plan);
+
+        // Requesting the plan either consumes the restored one, or returns the plan computed before it was restored.
+        if (PLANS.get(type) != plan) {
+            RESTORED.remove(type, plan);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Create the {@link MethodPlan} of every method declared by the provided {@link CommandDispatcher}.
+     * <p>
+     * A dispatcher generated for a previous version of its class may still be on the classpath, for example when the
+     * annotation processor is not used anymore. The dispatcher is only used if it declares exactly the methods
+     * annotated with {@link Command}, with the same syntax and order.
+     *
+     * @return A {@link List} of {@link MethodPlan}, or {@code null} if the dispatcher does not match its class anymore
+     *         and reflection should be used instead.
+     */
+    private static List<MethodPlan> fromDispatcher(CommandDispatcher dispatcher) {
+
+        List<CommandDispatcher.Definition> definitions = dispatcher.getDefinitions();
+        List<MethodPlan>                   methods     = new ArrayList<>(definitions.size());
+
+        long annotated = Arrays.stream(dispatcher.getType().getDeclaredMethods())
+                               .filter(method -> method.isAnnotationPresent(Command.class))
+                               .count();
+
+        if (annotated != definitions.size()) {
+            return null;
+        }
+
+        for (int i = 0; i < definitions.size(); i++) {
+            CommandDispatcher.Definition definition = definitions.get(i);
+            Method                       method;
+
+            try {
+                method = dispatcher.getType().getDeclaredMethod(definition.getName(), definition.getParameterTypes());
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+
+            Command command = method.getAnnotation(Command.class);
+            if (command == null || !command.value().equals(definition.getSyntax()) || command.order() != definition.getOrder()) {
+                return null;
+            }
+
+            MethodInvoker invoker = MethodInvoker.of(dispatcher, i);
+            methods.add(new MethodPlan(method, definition.getSyntax(), definition.getOrder(), invoker));
+        }
+        return methods;
+    }
+
+    /**
+     * Retrieve the {@link CommandPlan} of the provided class, compiling it if it is the first time this class is seen.
+     *
+     * @param type
+     *         The {@link CommandImpl} subclass.
+     *
+     * @return The {@link CommandPlan} of the class.
+     */
+    public static @NotNull CommandPlan of(@NotNull Class<?> type) {
+
+        return PLANS.get(type);
+    }
+
+    /**
+     * Retrieve the class from which this {@link CommandPlan} has been compiled.
+     *
+     * @return A class.
+     */
+    public @NotNull Class<?> getType() {
+
+        return this.type;
+    }
+
+    /**
+     * Check if the methods of this {@link CommandPlan} are invoked through a {@link CommandDispatcher} generated at
+     * compile time.
+     *
+     * @return True if a generated {@link CommandDispatcher} is used, false if the methods are invoked through
+     *         reflection.
+     */
+    public boolean isGenerated() {
+
+        return this.generated;
+    }
+
+    /**
+     * Retrieve every {@link MethodPlan} of this {@link CommandPlan}, sorted by priority.
+     *
+     * @return An unmodifiable {@link List} of {@link MethodPlan}.
+     */
+    public @NotNull List<MethodPlan> getMethods() {
+
+        return this.methods;
+    }
+
+    /**
+     * Check if every syntax of this {@link CommandPlan} could be compiled into a {@link SyntaxTree}. When this is not
+     * the case, the user input will be matched using the syntax service.
+     *
+     * @return True if a {@link SyntaxTree} is used, false otherwise.
+     */
+    public boolean isCompiled() {
+
+        return this.defaultTree != null;
+    }
+
+    /**
+     * Match the provided {@link ICommandInput} against the syntaxes of this {@link CommandPlan}.
+     *
+     * @param options
+     *         The {@link Map} associating a syntax name to its possible values.
+     * @param input
+     *         The {@link ICommandInput} to match.
+     * @param offset
+     *         The index of the first token to match.
+     *
+     * @return A {@link SyntaxMatch}, or {@code null} if no syntax matches the input.
+     */
+    public @Nullable SyntaxMatch match(@Nullable Map<String, List<String>> options, @NotNull ICommandInput input, int offset) {
+
+        return this.compile(options).match(input, offset);
+    }
+
+    /**
+     * Compile every syntax of this {@link CommandPlan} with the provided options. When no options are provided, the
+     * {@link CompiledSyntax} compiled with this {@link CommandPlan} is returned.
+     *
+     * @param options
+     *         The {@link Map} associating a syntax name to its possible values.
+     *
+     * @return A {@link CompiledSyntax}.
+     */
+    public @NotNull CompiledSyntax compile(@Nullable Map<String, List<String>> options) {
+
+        if (options == null || options.isEmpty()) {
+            return this.defaultSyntax;
+        }
+
+        if (this.defaultTree != null) {
+            return new CompiledSyntax(SyntaxTree.compile(this.methods, options), null);
+        }
+        return new CompiledSyntax(null, this.createService(options));
+    }
+
+    /**
+     * Retrieve the {@link ISyntaxService} to use with the provided options. When no options are provided, the
+     * {@link ISyntaxService} compiled with this {@link CommandPlan} is returned.
+     *
+     * @param options
+     *         The {@link Map} associating a syntax name to its possible values.
+     *
+     * @return An {@link ISyntaxService}.
+     */
+    public @NotNull ISyntaxService<MethodPlan> getService(@Nullable Map<String, List<String>> options) {
+
+        if (options == null || options.isEmpty()) {
+            ISyntaxService<MethodPlan> service = this.defaultService;
+            if (service == null) {
+                synchronized (this) {
+                    service = this.defaultService;
+                    if (service == null) {
+                        service             = this.createService(Collections.emptyMap());
+                        this.defaultService = service;
+                    }
+                }
+            }
+            return service;
+        }
+        return this.createService(options);
+    }
+
+    /**
+     * Retrieve the {@link SyntaxTree} compiled without options.
+     *
+     * @return A {@link SyntaxTree}, or {@code null} if the syntaxes cannot be compiled into a tree.
+     */
+    @Nullable SyntaxTree getDefaultTree() {
+
+        return this.defaultTree;
+    }
+
+    private ISyntaxService<MethodPlan> createService(Map<String, List<String>> options) {
+
+        Map<MethodPlan, ISyntaxContainer> syntaxMap = new HashMap<>();
+        for (MethodPlan method : this.methods) {
+            syntaxMap.put(method, SyntaxUtils.toContainer(options, method.getSyntax(), method.getOrder()));
+        }
+        return new SyntaxService<>(syntaxMap);
+    }
+}
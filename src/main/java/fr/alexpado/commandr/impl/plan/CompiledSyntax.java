@@ -0,0 +1,47 @@
+package fr.alexpado.commandr.impl.plan;
+
+import fr.alexpado.commandr.interfaces.ICommandInput;
+import fr.alexpado.syntaxic.interfaces.IMatchingResult;
+import fr.alexpado.syntaxic.interfaces.ISyntaxService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+
+/**
+ * Immutable result of the compilation of every syntax of a {@link CommandPlan} with a given set of options, ready to
+ * match user inputs. Instances can be cached as long as the options they were compiled with do not change.
+ */
+public final class CompiledSyntax {
+
+    private final SyntaxTree                 tree;
+    private final ISyntaxService<MethodPlan> service;
+
+    CompiledSyntax(@Nullable SyntaxTree tree, @Nullable ISyntaxService<MethodPlan> service) {
+
+        this.tree    = tree;
+        this.service = service;
+    }
+
+    /**
+     * Match the provided {@link ICommandInput} against the compiled syntaxes.
+     *
+     * @param input
+     *         The {@link ICommandInput} to match.
+     * @param offset
+     *         The index of the first token to match.
+     *
+     * @return A {@link SyntaxMatch}, or {@code null} if no syntax matches the input.
+     */
+    public @Nullable SyntaxMatch match(@NotNull ICommandInput input, int offset) {
+
+        if (this.tree != null) {
+            return this.tree.match(input, offset);
+        }
+
+        // A CompiledSyntax always has either a tree or a service.
+        //noinspection ConstantConditions
+        Optional<IMatchingResult<MethodPlan>> result = this.service.getMatchingResult(input.join(offset));
+        return result.map(SyntaxMatch::new).orElse(null);
+    }
+}
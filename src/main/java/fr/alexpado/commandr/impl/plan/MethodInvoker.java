@@ -0,0 +1,253 @@
+package fr.alexpado.commandr.impl.plan;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Class allowing to invoke a {@link Method} through an invoker bound once, instead of using
+ * {@link Method#invoke(Object, Object...)} on every call.
+ * <p>
+ * When possible, the {@link Method} is bound using {@link LambdaMetafactory} to a functional interface matching its
+ * arity, producing a plain class calling the method directly that the JIT is able to inline. Otherwise, a
+ * {@link MethodHandle} adapted to the {@code (Object, Object[])Object} shape is used. In both cases, any exception
+ * thrown by the method is rethrown as-is, without being wrapped into an {@link InvocationTargetException}. Errors are
+ * still wrapped, so they keep being reported as command exceptions instead of escaping the handler.
+ * <p>
+ * When the {@link Method} belongs to a class having a {@link CommandDispatcher} generated at compile time, the
+ * dispatcher is used instead and no class is generated at runtime.
+ */
+public final class MethodInvoker {
+
+    private static final int GENERATED = -2;
+
+    private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private static final Class<?>[] ARITY_INTERFACES = {
+            Arity0.class, Arity1.class, Arity2.class, Arity3.class, Arity4.class, Arity5.class
+    };
+
+    private static final MethodInvoker[] NO_OPS = {
+            new MethodInvoker(0, (Arity0) target -> null, null, -1),
+            new MethodInvoker(1, (Arity1) (target, a) -> null, null, -1),
+            new MethodInvoker(2, (Arity2) (target, a, b) -> null, null, -1),
+            new MethodInvoker(3, (Arity3) (target, a, b, c) -> null, null, -1),
+            new MethodInvoker(4, (Arity4) (target, a, b, c, d) -> null, null, -1),
+            new MethodInvoker(5, (Arity5) (target, a, b, c, d, e) -> null, null, -1)
+    };
+
+    private static final MethodInvoker NO_OP_SPREADER = new MethodInvoker(-1, null, MethodHandles.dropArguments(
+            MethodHandles.constant(Object.class, null), 0, Object.class, Object[].class
+    ), -1);
+
+    private final int          arity;
+    private final Object       function;
+    private final MethodHandle spreader;
+    private final int          index;
+
+    private MethodInvoker(int arity, Object function, MethodHandle spreader, int index) {
+
+        this.arity    = arity;
+        this.function = function;
+        this.spreader = spreader;
+        this.index    = index;
+    }
+
+    /**
+     * Create a new {@link MethodInvoker} calling a method through the provided {@link CommandDispatcher}.
+     *
+     * @param dispatcher
+     *         The {@link CommandDispatcher} declaring the method.
+     * @param index
+     *         The declaration index of the method within the {@link CommandDispatcher}.
+     *
+     * @return A {@link MethodInvoker}.
+     */
+    public static @NotNull MethodInvoker of(@NotNull CommandDispatcher dispatcher, int index) {
+
+        return new MethodInvoker(GENERATED, dispatcher, null, index);
+    }
+
+    /**
+     * Create a new {@link MethodInvoker} for the provided instance {@link Method}.
+     *
+     * @param method
+     *         The {@link Method} to bind.
+     *
+     * @return A {@link MethodInvoker}.
+     *
+     * @throws IllegalStateException
+     *         Threw if the {@link Method} could not be accessed.
+     */
+    public static @NotNull MethodInvoker of(@NotNull Method method) {
+
+        MethodHandles.Lookup lookup = lookupFor(method);
+        MethodHandle         handle;
+
+        try {
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            // The method or its declaring class is not public: try again with the access checks suppressed.
+            try {
+                method.setAccessible(true);
+                handle = lookup.unreflect(method);
+            } catch (IllegalAccessException | RuntimeException ex) {
+                throw new IllegalStateException("Unable to access method " + method, ex);
+            }
+        }
+
+        int arity = method.getParameterCount();
+        MethodHandle spreader = handle.asSpreader(Object[].class, arity).asType(SPREAD_TYPE);
+
+        if (arity < ARITY_INTERFACES.length) {
+            try {
+                return new MethodInvoker(arity, spinFunction(lookup, handle, ARITY_INTERFACES[arity]), spreader, -1);
+            } catch (Throwable ignored) {
+                // The declaring class cannot host a generated class (hidden lookup, restricted module...):
+                // the spreader alone will be used.
+            }
+        }
+        return new MethodInvoker(-1, null, spreader, -1);
+    }
+
+    /**
+     * Retrieve a {@link MethodInvoker} doing nothing and returning {@code null}, going through the same invocation
+     * path as the invokers of methods having the provided amount of parameters. This allows warming up the invocation
+     * path without invoking any command.
+     *
+     * @param arity
+     *         The amount of parameters.
+     *
+     * @return A {@link MethodInvoker}.
+     */
+    public static @NotNull MethodInvoker noop(int arity) {
+
+        return arity < NO_OPS.length ? NO_OPS[arity] : NO_OP_SPREADER;
+    }
+
+    private static MethodHandles.Lookup lookupFor(Method method) {
+
+        try {
+            return MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+        } catch (IllegalAccessException | RuntimeException e) {
+            return MethodHandles.lookup();
+        }
+    }
+
+    private static Object spinFunction(MethodHandles.Lookup lookup, MethodHandle handle, Class<?> functionType) throws Throwable {
+
+        if ((lookup.lookupModes() & MethodHandles.Lookup.PRIVATE) == 0 || !Modifier.isPublic(functionType.getModifiers())) {
+            throw new IllegalAccessException("The lookup does not have private access.");
+        }
+
+        MethodType erased = MethodType.genericMethodType(handle.type().parameterCount());
+        CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "invoke",
+                MethodType.methodType(functionType),
+                erased,
+                handle,
+                handle.type().wrap().changeReturnType(Object.class)
+        );
+        return site.getTarget().invoke();
+    }
+
+    /**
+     * Check if this {@link MethodInvoker} calls its method through a {@link CommandDispatcher} generated at compile
+     * time.
+     *
+     * @return True if a generated {@link CommandDispatcher} is used, false otherwise.
+     */
+    public boolean isGenerated() {
+
+        return this.arity == GENERATED;
+    }
+
+    /**
+     * Invoke the bound method on the provided target.
+     *
+     * @param target
+     *         The instance on which the method will be invoked.
+     * @param arguments
+     *         The arguments to pass to the method.
+     *
+     * @return The value returned by the method, or {@code null} if the method returns {@code void}.
+     *
+     * @throws Exception
+     *         Any exception thrown by the method itself. An {@link Error} thrown by the method is wrapped into an
+     *         {@link InvocationTargetException}, as {@link Method#invoke(Object, Object...)} would do, so it can still be
+     *         reported as a command exception.
+     */
+    public @Nullable Object invoke(@NotNull Object target, @NotNull Object[] arguments) throws Exception {
+
+        try {
+            switch (this.arity) {
+                case GENERATED:
+                    return ((CommandDispatcher) this.function).invoke(this.index, target, arguments);
+                case 0:
+                    return ((Arity0) this.function).invoke(target);
+                case 1:
+                    return ((Arity1) this.function).invoke(target, arguments[0]);
+                case 2:
+                    return ((Arity2) this.function).invoke(target, arguments[0], arguments[1]);
+                case 3:
+                    return ((Arity3) this.function).invoke(target, arguments[0], arguments[1], arguments[2]);
+                case 4:
+                    return ((Arity4) this.function).invoke(target, arguments[0], arguments[1], arguments[2], arguments[3]);
+                case 5:
+                    return ((Arity5) this.function).invoke(target, arguments[0], arguments[1], arguments[2], arguments[3], arguments[4]);
+                default:
+                    return (Object) this.spreader.invokeExact(target, arguments);
+            }
+        } catch (Exception e) {
+            throw e;
+        } catch (Error error) {
+            throw new InvocationTargetException(error);
+        } catch (Throwable throwable) {
+            throw new UndeclaredThrowableException(throwable);
+        }
+    }
+
+    // <editor-fold desc="Generated function shapes">
+    public interface Arity0 {
+
+        Object invoke(Object target) throws Throwable;
+
+    }
+
+    public interface Arity1 {
+
+        Object invoke(Object target, Object a) throws Throwable;
+
+    }
+
+    public interface Arity2 {
+
+        Object invoke(Object target, Object a, Object b) throws Throwable;
+
+    }
+
+    public interface Arity3 {
+
+        Object invoke(Object target, Object a, Object b, Object c) throws Throwable;
+
+    }
+
+    public interface Arity4 {
+
+        Object invoke(Object target, Object a, Object b, Object c, Object d) throws Throwable;
+
+    }
+
+    public interface Arity5 {
+
+        Object invoke(Object target, Object a, Object b, Object c, Object d, Object e) throws Throwable;
+
+    }
+    // </editor-fold>
+}
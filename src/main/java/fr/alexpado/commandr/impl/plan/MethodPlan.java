@@ -0,0 +1,252 @@
+package fr.alexpado.commandr.impl.plan;
+
+import fr.alexpado.commandr.annotations.Cacheable;
+import fr.alexpado.commandr.annotations.Command;
+import fr.alexpado.commandr.impl.ResultCache;
+import fr.alexpado.commandr.interfaces.ICommandContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+
+/**
+ * Immutable representation of a {@link Method} annotated with {@link Command}, as seen by a {@link CommandPlan}.
+ */
+public final class MethodPlan {
+
+    private final Method              method;
+    private final MethodInvoker       invoker;
+    private final ParameterResolver[] resolvers;
+    private final String              syntax;
+    private final SyntaxPattern       pattern;
+    private final int                 order;
+    private final Cacheable           cacheable;
+    private final int[]               userInputs;
+
+    /**
+     * Create a new {@link MethodPlan} for the provided {@link Method}.
+     *
+     * @param method
+     *         The {@link Method} to execute when the syntax matches.
+     * @param command
+     *         The {@link Command} annotation present on the {@link Method}.
+     *
+     * @throws IllegalStateException
+     *         Threw if one of the {@link Method}'s parameters can never be resolved.
+     */
+    public MethodPlan(@NotNull Method method, @NotNull Command command) {
+
+        this(method, command.value(), command.order(), MethodInvoker.of(method));
+    }
+
+    /**
+     * Create a new {@link MethodPlan} for the provided {@link Method}, invoked through the provided
+     * {@link MethodInvoker}.
+     *
+     * @param method
+     *         The {@link Method} to execute when the syntax matches.
+     * @param syntax
+     *         The syntax string defined in {@link Command#value()}.
+     * @param order
+     *         The priority defined in {@link Command#order()}.
+     * @param invoker
+     *         The {@link MethodInvoker} calling the {@link Method}.
+     *
+     * @throws IllegalStateException
+     *         Threw if one of the {@link Method}'s parameters can never be resolved.
+     */
+    public MethodPlan(@NotNull Method method, @NotNull String syntax, int order, @NotNull MethodInvoker invoker) {
+
+        SyntaxPattern       pattern    = SyntaxPattern.parse(syntax);
+        Parameter[]         parameters = method.getParameters();
+        ParameterResolver[] resolvers  = new ParameterResolver[parameters.length];
+
+        for (int i = 0; i < parameters.length; i++) {
+            resolvers[i] = ParameterResolver.of(parameters[i], pattern);
+        }
+
+        this.method     = method;
+        this.invoker    = invoker;
+        this.resolvers  = resolvers;
+        this.syntax     = syntax;
+        this.pattern    = pattern;
+        this.order      = order;
+        this.cacheable  = method.getAnnotation(Cacheable.class);
+        this.userInputs = indexUserInputs(resolvers);
+    }
+
+    /**
+     * Create a new {@link MethodPlan} restored from a {@link RegistrySnapshot}, without inspecting the parameters of
+     * the {@link Method}.
+     */
+    MethodPlan(Method method, String syntax, int order, MethodInvoker invoker, ParameterResolver[] resolvers, Cacheable cacheable) {
+
+        this.method     = method;
+        this.invoker    = invoker;
+        this.resolvers  = resolvers;
+        this.syntax     = syntax;
+        this.pattern    = SyntaxPattern.parse(syntax);
+        this.order      = order;
+        this.cacheable  = cacheable;
+        this.userInputs = indexUserInputs(resolvers);
+    }
+
+    private MethodPlan(MethodPlan source, MethodInvoker invoker) {
+
+        this.method     = source.method;
+        this.invoker    = invoker;
+        this.resolvers  = source.resolvers;
+        this.syntax     = source.syntax;
+        this.pattern    = source.pattern;
+        this.order      = source.order;
+        this.cacheable  = source.cacheable;
+        this.userInputs = source.userInputs;
+    }
+
+    private static int[] indexUserInputs(ParameterResolver[] resolvers) {
+
+        int[] userInputs = new int[(int) Arrays.stream(resolvers).filter(ParameterResolver::isUserInput).count()];
+        for (int i = 0, j = 0; i < resolvers.length; i++) {
+            if (resolvers[i].isUserInput()) {
+                userInputs[j++] = i;
+            }
+        }
+        return userInputs;
+    }
+
+    /**
+     * Build the arguments of the {@link Method} of this {@link MethodPlan}.
+     *
+     * @param context
+     *         The current {@link ICommandContext} for this execution.
+     * @param match
+     *         The {@link SyntaxMatch} of the user input, identifying this {@link MethodPlan}.
+     *
+     * @return An array of arguments, ready to be used with {@link MethodInvoker#invoke(Object, Object[])}.
+     *
+     * @throws IllegalStateException
+     *         Threw if an argument could not be resolved.
+     */
+    public @NotNull Object[] bind(@NotNull ICommandContext<?> context, @NotNull SyntaxMatch match) {
+
+        ParameterResolver[] resolvers = this.resolvers;
+        Object[]            arguments = new Object[resolvers.length];
+
+        for (int i = 0; i < resolvers.length; i++) {
+            arguments[i] = resolvers[i].resolve(context, match);
+        }
+        return arguments;
+    }
+
+    /**
+     * Create the {@link ResultCache.Key} identifying the value returned by the {@link Method} for the provided
+     * arguments. Only the arguments coming from the user input are part of the key.
+     *
+     * @param arguments
+     *         The arguments built by {@link #bind(ICommandContext, SyntaxMatch)}.
+     * @param emitter
+     *         The emitter of the command, or null if the cached value is shared between emitters.
+     *
+     * @return A {@link ResultCache.Key}.
+     */
+    public @NotNull ResultCache.Key createCacheKey(@NotNull Object[] arguments, @Nullable Object emitter) {
+
+        Object[] values = new Object[this.userInputs.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = arguments[this.userInputs[i]];
+        }
+        return new ResultCache.Key(Arrays.asList(values), emitter);
+    }
+
+    /**
+     * Retrieve the {@link Method} that will be executed when this {@link MethodPlan} is matched.
+     *
+     * @return A {@link Method}.
+     */
+    public @NotNull Method getMethod() {
+
+        return this.method;
+    }
+
+    /**
+     * Retrieve the {@link MethodInvoker} bound to the {@link Method} of this {@link MethodPlan}.
+     *
+     * @return A {@link MethodInvoker}.
+     */
+    public @NotNull MethodInvoker getInvoker() {
+
+        return this.invoker;
+    }
+
+    /**
+     * Create a copy of this {@link MethodPlan} calling the {@link Method} through the provided {@link MethodInvoker}.
+     *
+     * @param invoker
+     *         The {@link MethodInvoker} to use, such as {@link MethodInvoker#noop(int)}.
+     *
+     * @return A new {@link MethodPlan}.
+     */
+    public @NotNull MethodPlan withInvoker(@NotNull MethodInvoker invoker) {
+
+        return new MethodPlan(this, invoker);
+    }
+
+    /**
+     * Retrieve the {@link ParameterResolver} of each parameter of the {@link Method}. The returned array must not be
+     * modified.
+     *
+     * @return An array of {@link ParameterResolver}.
+     */
+    @NotNull ParameterResolver[] getResolvers() {
+
+        return this.resolvers;
+    }
+
+    /**
+     * Retrieve the syntax string defined in {@link Command#value()}.
+     *
+     * @return A syntax string.
+     */
+    public @NotNull String getSyntax() {
+
+        return this.syntax;
+    }
+
+    /**
+     * Retrieve the {@link SyntaxPattern} parsed from {@link Command#value()}.
+     *
+     * @return A {@link SyntaxPattern}, or {@code null} if the syntax can only be matched by the syntax service.
+     */
+    public @Nullable SyntaxPattern getPattern() {
+
+        return this.pattern;
+    }
+
+    /**
+     * Retrieve the priority defined in {@link Command#order()}.
+     *
+     * @return The order priority.
+     */
+    public int getOrder() {
+
+        return this.order;
+    }
+
+    /**
+     * Retrieve the {@link Cacheable} annotation present on the {@link Method}.
+     *
+     * @return A {@link Cacheable}, or {@code null} if the returned values should not be cached.
+     */
+    public @Nullable Cacheable getCacheable() {
+
+        return this.cacheable;
+    }
+
+    @Override
+    public String toString() {
+
+        return this.method.getDeclaringClass().getSimpleName() + "#" + this.method.getName() + " (" + this.syntax + ")";
+    }
+}
@@ -0,0 +1,161 @@
+package fr.alexpado.commandr.impl.plan;
+
+import fr.alexpado.commandr.annotations.Param;
+import fr.alexpado.commandr.interfaces.ICommandContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Optional;
+
+/**
+ * Interface representing how the value of a single {@link Method} parameter is obtained when a command is executed.
+ * Resolvers are computed once per {@link MethodPlan}, so that no annotation lookup is needed at execution time.
+ */
+public interface ParameterResolver {
+
+    /**
+     * Create the {@link ParameterResolver} matching the provided {@link Parameter}.
+     *
+     * @param parameter
+     *         The {@link Parameter} for which the resolver should be created.
+     * @param pattern
+     *         The {@link SyntaxPattern} of the method, or {@code null} if the syntax could not be parsed.
+     *
+     * @return A {@link ParameterResolver}.
+     *
+     * @throws IllegalStateException
+     *         Threw if the {@link Parameter} can never be resolved.
+     */
+    static @NotNull ParameterResolver of(@NotNull Parameter parameter, @Nullable SyntaxPattern pattern) {
+
+        Class<?> type  = parameter.getType();
+        Param    param = parameter.getAnnotation(Param.class);
+
+        if (param != null) {
+            int position = pattern == null ? -1 : pattern.indexOf(param.value());
+
+            if (type == Optional.class) {
+                return new SyntaxValue(param.value(), position, true);
+            }
+
+            if (!type.isAssignableFrom(String.class)) {
+                throw new IllegalStateException(String.format(
+                        "Unable to complete type %s for parameter '%s' of %s: @Param can only be used on String or Optional parameters.",
+                        type.getName(),
+                        param.value(),
+                        parameter.getDeclaringExecutable()
+                ));
+            }
+            return new SyntaxValue(param.value(), position, false);
+        }
+
+        if (type == ICommandContext.class) {
+            return new Context();
+        }
+
+        // Other parameters are looked up within the context, which only holds objects.
+        if (type.isPrimitive()) {
+            throw new IllegalStateException(String.format(
+                    "Unable to complete type %s for parameter '%s' of %s: parameters without @Param cannot be primitive, use the wrapper type instead.",
+                    type.getName(),
+                    parameter.getName(),
+                    parameter.getDeclaringExecutable()
+            ));
+        }
+        return new RegisteredClass(type);
+    }
+
+    /**
+     * Resolve the value of the parameter.
+     *
+     * @param context
+     *         The current {@link ICommandContext} for this execution.
+     * @param match
+     *         The {@link SyntaxMatch} of the user input.
+     *
+     * @return The value to pass to the method.
+     *
+     * @throws IllegalStateException
+     *         Threw if the value could not be resolved.
+     */
+    @Nullable Object resolve(@NotNull ICommandContext<?> context, @NotNull SyntaxMatch match);
+
+    /**
+     * Check if the value of the parameter comes from the user input.
+     *
+     * @return True if the parameter is annotated with {@link Param}, false otherwise.
+     */
+    default boolean isUserInput() {
+
+        return false;
+    }
+
+    /**
+     * Resolves a parameter annotated with {@link Param}, optionally wrapping it into an {@link Optional}.
+     */
+    final class SyntaxValue implements ParameterResolver {
+
+        final String  name;
+        final int     position;
+        final boolean optional;
+
+        SyntaxValue(String name, int position, boolean optional) {
+
+            this.name     = name;
+            this.position = position;
+            this.optional = optional;
+        }
+
+        @Override
+        public @Nullable Object resolve(@NotNull ICommandContext<?> context, @NotNull SyntaxMatch match) {
+
+            String value = match.getValue(this.name, this.position);
+            return this.optional ? Optional.ofNullable(value) : value;
+        }
+
+        @Override
+        public boolean isUserInput() {
+
+            return true;
+        }
+    }
+
+    /**
+     * Resolves a parameter to an instance registered within the {@link ICommandContext}, or to the
+     * {@link ICommandContext} itself if it is compatible with the parameter type.
+     */
+    final class RegisteredClass implements ParameterResolver {
+
+        final Class<?> type;
+
+        RegisteredClass(Class<?> type) {
+
+            this.type = type;
+        }
+
+        @Override
+        public @Nullable Object resolve(@NotNull ICommandContext<?> context, @NotNull SyntaxMatch match) {
+
+            if (context.hasClass(this.type)) {
+                return context.getRegisteredClass(this.type);
+            } else if (this.type.isInstance(context)) {
+                return context;
+            }
+            throw new IllegalStateException("Unable to complete type " + this.type.getName());
+        }
+    }
+
+    /**
+     * Resolves a parameter to the {@link ICommandContext} of the execution.
+     */
+    final class Context implements ParameterResolver {
+
+        @Override
+        public @NotNull Object resolve(@NotNull ICommandContext<?> context, @NotNull SyntaxMatch match) {
+
+            return context;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package fr.alexpado.commandr.impl.plan;
+
+import fr.alexpado.commandr.annotations.Cacheable;
+import fr.alexpado.commandr.impl.CommandImpl;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Binary snapshot of the {@link CommandPlan}s of a set of {@link CommandImpl} subclasses, allowing to skip their
+ * compilation when an application restarts.
+ * <p>
+ * For each class, the snapshot contains the identity, syntax and order of every method annotated with
+ * {@link fr.alexpado.commandr.annotations.Command}, how each of their parameters is resolved, and the
+ * {@link SyntaxTree} compiled without options. Methods are still invoked through a {@link MethodInvoker}, which cannot
+ * be persisted.
+ * <p>
+ * A snapshot is keyed by a hash of the class files of every class it contains: loading it for a set of classes that
+ * changed in any way has no effect, and the classes are compiled as usual.
+ */
+public final class RegistrySnapshot {
+
+    private static final int MAGIC  = 0x434D4452; // CMDR
+    private static final int FORMAT = 1;
+
+    private static final byte RESOLVER_VALUE      = 0;
+    private static final byte RESOLVER_OPTIONAL   = 1;
+    private static final byte RESOLVER_CONTEXT    = 2;
+    private static final byte RESOLVER_REGISTERED = 3;
+
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+        for (Class<?> primitive : new Class<?>[]{boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class}) {
+            PRIMITIVES.put(primitive.getName(), primitive);
+        }
+    }
+
+    private RegistrySnapshot() {}
+
+    /**
+     * Write the {@link CommandPlan} of every provided class to the provided file, compiling them if necessary. The
+     * file is replaced atomically when possible.
+     *
+     * @param file
+     *         The file to write.
+     * @param types
+     *         The {@link CommandImpl} subclasses to include in the snapshot.
+     *
+     * @throws IOException
+     *         Threw if the file could not be written, or if the class file of one of the classes could not be read.
+     */
+    public static void write(@NotNull Path file, @NotNull Collection<? extends Class<?>> types) throws IOException {
+
+        List<Class<?>> sorted = sort(types);
+        Path           temp   = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT);
+            output.write(computeKey(sorted));
+            output.writeInt(sorted.size());
+
+            for (Class<?> type : sorted) {
+                writePlan(output, CommandPlan.of(type));
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Load the {@link CommandPlan}s of the provided classes from the provided file. The plans replace the compilation
+     * of each class, and must therefore be loaded before the commands are registered: a class whose plan has already
+     * been computed, for example because one of its instances has been registered, keeps its plan.
+     * <p>
+     * Nothing is loaded if the file does not exist, is unreadable, or has been written for a different set of classes
+     * or for classes that changed since.
+     *
+     * @param file
+     *         The file written by {@link #write(Path, Collection)}.
+     * @param types
+     *         The {@link CommandImpl} subclasses that will be registered.
+     *
+     * @return True if the plan of every class has been loaded, false if at least one class has been or will be
+     *         compiled.
+     */
+    public static boolean load(@NotNull Path file, @NotNull Collection<? extends Class<?>> types) {
+
+        List<Class<?>>   sorted = sort(types);
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            return false;
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                return false;
+            }
+
+            byte[] key = new byte[32];
+            buffer.get(key);
+            if (!Arrays.equals(key, computeKey(sorted)) || buffer.getInt() != sorted.size()) {
+                return false;
+            }
+
+            // Every plan is read before any is installed, so that a broken snapshot is entirely ignored.
+            List<BooleanSupplier> restorations = new ArrayList<>(sorted.size());
+            for (Class<?> type : sorted) {
+                restorations.add(readPlan(buffer, type));
+            }
+
+            boolean restored = true;
+            for (BooleanSupplier restoration : restorations) {
+                restored &= restoration.getAsBoolean();
+            }
+            return restored;
+        } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+            // The snapshot is truncated or corrupted, or the classes cannot be read: they will be compiled instead.
+            return false;
+        }
+    }
+
+    private static List<Class<?>> sort(Collection<? extends Class<?>> types) {
+
+        List<Class<?>> sorted = new ArrayList<>(new LinkedHashSet<>(types));
+        sorted.sort(Comparator.comparing(Class::getName));
+        return sorted;
+    }
+
+    /**
+     * Compute the SHA-256 hash of the name and class file of every provided class.
+     */
+    private static byte[] computeKey(List<Class<?>> types) throws IOException {
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+        }
+
+        for (Class<?> type : types) {
+            String name = type.getName();
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+
+            String      resource = name.replace('.', '/') + ".class";
+            ClassLoader loader   = type.getClassLoader();
+
+            try (InputStream input = loader == null ? ClassLoader.getSystemResourceAsStream(resource) : loader.getResourceAsStream(resource)) {
+                if (input == null) {
+                    throw new FileNotFoundException("Unable to read the class file of " + name);
+                }
+
+                byte[] chunk = new byte[8192];
+                int    read;
+                while ((read = input.read(chunk)) > 0) {
+                    digest.update(chunk, 0, read);
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    private static void writePlan(DataOutput output, CommandPlan plan) throws IOException {
+
+        List<MethodPlan> methods = plan.getMethods();
+        output.writeInt(methods.size());
+
+        for (MethodPlan method : methods) {
+            Class<?>[]          parameterTypes = method.getMethod().getParameterTypes();
+            ParameterResolver[] resolvers      = method.getResolvers();
+
+            writeString(output, method.getMethod().getName());
+            writeString(output, method.getSyntax());
+            output.writeInt(method.getOrder());
+            output.writeBoolean(method.getCacheable() != null);
+            output.writeInt(parameterTypes.length);
+
+            for (int i = 0; i < parameterTypes.length; i++) {
+                writeString(output, parameterTypes[i].getName());
+                writeResolver(output, resolvers[i]);
+            }
+        }
+
+        SyntaxTree tree = plan.getDefaultTree();
+        output.writeBoolean(tree != null);
+        if (tree != null) {
+            tree.write(output);
+        }
+    }
+
+    private static void writeResolver(DataOutput output, ParameterResolver resolver) throws IOException {
+
+        if (resolver instanceof ParameterResolver.SyntaxValue) {
+            ParameterResolver.SyntaxValue value = (ParameterResolver.SyntaxValue) resolver;
+            output.writeByte(value.optional ? RESOLVER_OPTIONAL : RESOLVER_VALUE);
+            writeString(output, value.name);
+            output.writeInt(value.position);
+        } else if (resolver instanceof ParameterResolver.Context) {
+            output.writeByte(RESOLVER_CONTEXT);
+        } else {
+            output.writeByte(RESOLVER_REGISTERED);
+        }
+    }
+
+    /**
+     * Read the {@link CommandPlan} of the provided class.
+     *
+     * @return A {@link BooleanSupplier} making the plan available to {@link CommandPlan#of(Class)}, returning false
+     *         if the plan of the class had already been computed.
+     */
+    private static BooleanSupplier readPlan(ByteBuffer buffer, Class<?> type) throws ReflectiveOperationException {
+
+        CommandDispatcher dispatcher  = CommandDispatcher.find(type);
+        int               methodCount = buffer.getInt();
+        List<MethodPlan>  methods     = new ArrayList<>(methodCount);
+
+        for (int i = 0; i < methodCount; i++) {
+            String  name      = readString(buffer);
+            String  syntax    = readString(buffer);
+            int     order     = buffer.getInt();
+            boolean cacheable = buffer.get() != 0;
+            int     count     = buffer.getInt();
+
+            Class<?>[]          parameterTypes = new Class<?>[count];
+            ParameterResolver[] resolvers      = new ParameterResolver[count];
+            for (int j = 0; j < count; j++) {
+                parameterTypes[j] = findClass(readString(buffer), type.getClassLoader());
+                resolvers[j]      = readResolver(buffer, parameterTypes[j]);
+            }
+
+            Method method = type.getDeclaredMethod(name, parameterTypes);
+            methods.add(new MethodPlan(
+                    method,
+                    syntax,
+                    order,
+                    createInvoker(dispatcher, method),
+                    resolvers,
+                    cacheable ? method.getAnnotation(Cacheable.class) : null
+            ));
+        }
+
+        SyntaxTree tree = buffer.get() != 0 ? SyntaxTree.read(buffer, methods) : null;
+        return () -> CommandPlan.restore(type, methods, tree);
+    }
+
+    private static MethodInvoker createInvoker(CommandDispatcher dispatcher, Method method) {
+
+        if (dispatcher != null) {
+            List<CommandDispatcher.Definition> definitions = dispatcher.getDefinitions();
+
+            for (int i = 0; i < definitions.size(); i++) {
+                CommandDispatcher.Definition definition = definitions.get(i);
+
+                if (definition.getName().equals(method.getName()) && Arrays.equals(definition.getParameterTypes(), method.getParameterTypes())) {
+                    return MethodInvoker.of(dispatcher, i);
+                }
+            }
+        }
+        return MethodInvoker.of(method);
+    }
+
+    private static ParameterResolver readResolver(ByteBuffer buffer, Class<?> type) {
+
+        byte kind = buffer.get();
+        switch (kind) {
+            case RESOLVER_VALUE:
+            case RESOLVER_OPTIONAL:
+                return new ParameterResolver.SyntaxValue(readString(buffer), buffer.getInt(), kind == RESOLVER_OPTIONAL);
+            case RESOLVER_CONTEXT:
+                return new ParameterResolver.Context();
+            case RESOLVER_REGISTERED:
+                return new ParameterResolver.RegisteredClass(type);
+            default:
+                throw new IllegalArgumentException("Unknown parameter resolver " + kind);
+        }
+    }
+
+    private static Class<?> findClass(String name, ClassLoader loader) throws ClassNotFoundException {
+
+        Class<?> primitive = PRIMITIVES.get(name);
+        return primitive == null ? Class.forName(name, false, loader) : primitive;
+    }
+
+    /**
+     * Write the provided {@link String} as its length followed by its UTF-8 bytes.
+     *
+     * @param output
+     *         The {@link DataOutput} to write to.
+     * @param value
+     *         The {@link String} to write.
+     *
+     * @throws IOException
+     *         Threw if the value could not be written.
+     */
+    static void writeString(DataOutput output, String value) throws IOException {
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Read a {@link String} written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param buffer
+     *         The {@link ByteBuffer} to read from.
+     *
+     * @return The {@link String}.
+     */
+    static String readString(ByteBuffer buffer) {
+
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,106 @@
+package fr.alexpado.commandr.impl.plan;
+
+import fr.alexpado.commandr.interfaces.ICommandInput;
+import fr.alexpado.syntaxic.interfaces.IMatchingResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Result of a successful matching of the user input against the syntaxes of a {@link CommandPlan}.
+ * <p>
+ * When the input has been matched by a {@link SyntaxTree}, values are read directly from the {@link ICommandInput}
+ * using the position of each element within the {@link SyntaxPattern}. Otherwise, values are read from the
+ * {@link IMatchingResult} provided by the syntax service.
+ */
+public final class SyntaxMatch {
+
+    private final MethodPlan                  method;
+    private final ICommandInput               input;
+    private final int                         offset;
+    private final IMatchingResult<MethodPlan> result;
+
+    /**
+     * Create a new {@link SyntaxMatch} from a {@link SyntaxTree} matching.
+     *
+     * @param method
+     *         The matched {@link MethodPlan}.
+     * @param input
+     *         The matched {@link ICommandInput}.
+     * @param offset
+     *         The index of the token matched by the first element of the {@link SyntaxPattern}.
+     */
+    public SyntaxMatch(@NotNull MethodPlan method, @NotNull ICommandInput input, int offset) {
+
+        this.method = method;
+        this.input  = input;
+        this.offset = offset;
+        this.result = null;
+    }
+
+    /**
+     * Create a new {@link SyntaxMatch} wrapping an {@link IMatchingResult}.
+     *
+     * @param result
+     *         The {@link IMatchingResult} identified by a {@link MethodPlan}.
+     */
+    public SyntaxMatch(@NotNull IMatchingResult<MethodPlan> result) {
+
+        this.method = result.getIdentifier();
+        this.input  = null;
+        this.offset = 0;
+        this.result = result;
+    }
+
+    /**
+     * Retrieve the matched {@link MethodPlan}.
+     *
+     * @return A {@link MethodPlan}.
+     */
+    public @NotNull MethodPlan getMethod() {
+
+        return this.method;
+    }
+
+    /**
+     * Retrieve the value of the variable or filler having the provided name.
+     *
+     * @param name
+     *         The name of the variable or filler.
+     *
+     * @return The value, or {@code null} if there is no value for this name.
+     */
+    public @Nullable String getValue(@NotNull String name) {
+
+        SyntaxPattern pattern = this.method.getPattern();
+        return this.getValue(name, pattern == null ? -1 : pattern.indexOf(name));
+    }
+
+    /**
+     * Retrieve the value of the variable or filler having the provided name, using the position of the element
+     * within the {@link SyntaxPattern} of the matched {@link MethodPlan} when possible.
+     *
+     * @param name
+     *         The name of the variable or filler.
+     * @param position
+     *         The position of the element within the {@link SyntaxPattern}, or -1 if it is not part of it.
+     *
+     * @return The value, or {@code null} if there is no value for this name.
+     */
+    @Nullable String getValue(@NotNull String name, int position) {
+
+        if (this.result != null) {
+            return this.result.getParameter(name).orElse(null);
+        }
+
+        if (position < 0) {
+            return null;
+        }
+
+        // A pattern is always available when matched through a SyntaxTree.
+        //noinspection ConstantConditions
+        if (this.method.getPattern().getKind(position) == SyntaxPattern.Kind.FILLER) {
+            return this.input.join(this.offset + position);
+        }
+        return this.input.getToken(this.offset + position);
+    }
+}
@@ -0,0 +1,180 @@
+package fr.alexpado.commandr.impl.plan;
+
+import fr.alexpado.commandr.annotations.Command;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed representation of a syntax string defined in {@link Command#value()}, used to compile a {@link SyntaxTree}.
+ * A syntax is made of space-separated elements, each being either:
+ * <ul>
+ *     <li>a literal, such as <code>world</code>, matching exactly one identical token,</li>
+ *     <li>a variable, such as <code>[name]</code>, matching any single token,</li>
+ *     <li>a filler, such as <code>text...</code>, matching every remaining token. A filler is always the last element.</li>
+ * </ul>
+ */
+public final class SyntaxPattern {
+
+    private final Kind[]   kinds;
+    private final String[] names;
+
+    private SyntaxPattern(Kind[] kinds, String[] names) {
+
+        this.kinds = kinds;
+        this.names = names;
+    }
+
+    /**
+     * Parse the provided syntax string.
+     *
+     * @param syntax
+     *         The syntax string to parse.
+     *
+     * @return A {@link SyntaxPattern}, or {@code null} if the syntax uses a construct that cannot be compiled into a
+     *         {@link SyntaxTree}.
+     */
+    public static @Nullable SyntaxPattern parse(@NotNull String syntax) {
+
+        List<Kind>   kinds = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+
+        for (String element : syntax.trim().split(" ")) {
+            if (element.isEmpty()) {
+                continue;
+            }
+
+            if (!kinds.isEmpty() && kinds.get(kinds.size() - 1) == Kind.FILLER) {
+                return null; // Only one filler can be used, and it must be the last element.
+            }
+
+            if (element.length() > 2 && element.startsWith("[") && element.endsWith("]")) {
+                kinds.add(Kind.VARIABLE);
+                names.add(element.substring(1, element.length() - 1));
+            } else if (element.length() > 3 && element.endsWith("...")) {
+                kinds.add(Kind.FILLER);
+                names.add(element.substring(0, element.length() - 3));
+            } else {
+                kinds.add(Kind.LITERAL);
+                names.add(element);
+            }
+
+            String name = names.get(names.size() - 1);
+            if (name.contains("[") || name.contains("]") || name.contains("...")) {
+                return null;
+            }
+        }
+
+        return new SyntaxPattern(kinds.toArray(new Kind[0]), names.toArray(new String[0]));
+    }
+
+    /**
+     * Retrieve the amount of elements in this {@link SyntaxPattern}.
+     *
+     * @return The amount of elements.
+     */
+    public int size() {
+
+        return this.kinds.length;
+    }
+
+    /**
+     * Retrieve the {@link Kind} of the element at the provided position.
+     *
+     * @param position
+     *         The element position.
+     *
+     * @return A {@link Kind}.
+     */
+    public @NotNull Kind getKind(int position) {
+
+        return this.kinds[position];
+    }
+
+    /**
+     * Retrieve the name of the element at the provided position. For literals, the name is the literal itself.
+     *
+     * @param position
+     *         The element position.
+     *
+     * @return The element name.
+     */
+    public @NotNull String getName(int position) {
+
+        return this.names[position];
+    }
+
+    /**
+     * Retrieve the position of the variable or filler having the provided name.
+     *
+     * @param name
+     *         The name of the variable or filler.
+     *
+     * @return The position of the element, or -1 if no variable or filler use this name.
+     */
+    public int indexOf(@NotNull String name) {
+
+        for (int i = 0; i < this.kinds.length; i++) {
+            if (this.kinds[i] != Kind.LITERAL && this.names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Create a user input matching this {@link SyntaxPattern} when no options are defined: literals are kept as-is,
+     * each variable is replaced by its name, and a filler by two words.
+     *
+     * @return A sample user input, without the command label.
+     */
+    public @NotNull String sample() {
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.kinds.length; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+
+            builder.append(this.names[i]);
+            if (this.kinds[i] == Kind.FILLER) {
+                builder.append(" sample");
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.kinds.length; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+
+            switch (this.kinds[i]) {
+                case VARIABLE:
+                    builder.append('[').append(this.names[i]).append(']');
+                    break;
+                case FILLER:
+                    builder.append(this.names[i]).append("...");
+                    break;
+                default:
+                    builder.append(this.names[i]);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Kind of element in a {@link SyntaxPattern}.
+     */
+    public enum Kind {
+        LITERAL,
+        VARIABLE,
+        FILLER
+    }
+}
@@ -0,0 +1,329 @@
+package fr.alexpado.commandr.impl.plan;
+
+import fr.alexpado.commandr.annotations.Command;
+import fr.alexpado.commandr.interfaces.ICommandInput;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Decision tree merging every {@link SyntaxPattern} of a {@link CommandPlan}.
+ * <p>
+ * Each level of the tree corresponds to one token of the user input, and branches on literal tokens, variables and
+ * fillers. Every syntax is given a rank based on its {@link Command#order()}, and each node knows the best rank
+ * reachable from it: matching is a single walk over the input tokens that skips any branch unable to produce a better
+ * match than the one already found, while still honouring the {@link Command#order()} precedence.
+ */
+public final class SyntaxTree {
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private final Node         root;
+    private final MethodPlan[] ranked;
+
+    private SyntaxTree(Node root, MethodPlan[] ranked) {
+
+        this.root   = root;
+        this.ranked = ranked;
+    }
+
+    /**
+     * Compile the provided {@link MethodPlan}s into a {@link SyntaxTree}. The provided {@link List} must be sorted by
+     * priority, the first {@link MethodPlan} having the highest priority.
+     *
+     * @param methods
+     *         The {@link MethodPlan}s to compile, sorted by priority.
+     * @param options
+     *         The {@link Map} associating a variable name to its possible values. Variables without options accept
+     *         any value.
+     *
+     * @return A {@link SyntaxTree}, or {@code null} if one of the {@link MethodPlan} does not have a
+     *         {@link SyntaxPattern}.
+     */
+    public static @Nullable SyntaxTree compile(@NotNull List<MethodPlan> methods, @NotNull Map<String, List<String>> options) {
+
+        Builder      root   = new Builder();
+        MethodPlan[] ranked = new MethodPlan[methods.size()];
+
+        for (int rank = 0; rank < ranked.length; rank++) {
+            MethodPlan    method  = methods.get(rank);
+            SyntaxPattern pattern = method.getPattern();
+
+            if (pattern == null) {
+                return null;
+            }
+
+            ranked[rank] = method;
+            Builder node = root;
+
+            for (int position = 0; position < pattern.size(); position++) {
+                String name = pattern.getName(position);
+
+                switch (pattern.getKind(position)) {
+                    case LITERAL:
+                        node = node.literals.computeIfAbsent(name, key -> new Builder());
+                        break;
+                    case VARIABLE:
+                        node = node.variables.computeIfAbsent(options.get(name), key -> new Builder());
+                        break;
+                    case FILLER:
+                        node.fillerRank = Math.min(node.fillerRank, rank);
+                        break;
+                }
+            }
+
+            if (pattern.size() == 0 || pattern.getKind(pattern.size() - 1) != SyntaxPattern.Kind.FILLER) {
+                node.terminalRank = Math.min(node.terminalRank, rank);
+            }
+        }
+
+        return new SyntaxTree(root.build(), ranked);
+    }
+
+    /**
+     * Match the provided {@link ICommandInput} against this {@link SyntaxTree}.
+     *
+     * @param input
+     *         The {@link ICommandInput} to match.
+     * @param offset
+     *         The index of the first token to match.
+     *
+     * @return A {@link SyntaxMatch}, or {@code null} if no syntax matches the input.
+     */
+    public @Nullable SyntaxMatch match(@NotNull ICommandInput input, int offset) {
+
+        int rank = search(this.root, input, offset, input.getTokenCount(), NONE);
+
+        if (rank == NONE) {
+            return null;
+        }
+        return new SyntaxMatch(this.ranked[rank], input, offset);
+    }
+
+    /**
+     * Write this {@link SyntaxTree} to the provided output, so that it can be read again using
+     * {@link #read(ByteBuffer, List)} without compiling the syntaxes.
+     *
+     * @param output
+     *         The {@link DataOutput} to write to.
+     *
+     * @throws IOException
+     *         Threw if the tree could not be written.
+     */
+    void write(DataOutput output) throws IOException {
+
+        write(output, this.root);
+    }
+
+    private static void write(DataOutput output, Node node) throws IOException {
+
+        output.writeInt(node.literalKeys.length);
+        for (int i = 0; i < node.literalKeys.length; i++) {
+            RegistrySnapshot.writeString(output, node.literalKeys[i]);
+            write(output, node.literalChildren[i]);
+        }
+
+        output.writeInt(node.variableOptions.length);
+        for (int i = 0; i < node.variableOptions.length; i++) {
+            String[] options = node.variableOptions[i];
+
+            output.writeInt(options == null ? -1 : options.length);
+            if (options != null) {
+                for (String option : options) {
+                    RegistrySnapshot.writeString(output, option);
+                }
+            }
+            write(output, node.variableChildren[i]);
+        }
+
+        output.writeInt(node.terminalRank);
+        output.writeInt(node.fillerRank);
+    }
+
+    /**
+     * Read a {@link SyntaxTree} written by {@link #write(DataOutput)}.
+     *
+     * @param buffer
+     *         The {@link ByteBuffer} to read from.
+     * @param methods
+     *         The {@link MethodPlan}s the tree has been compiled from, sorted by priority.
+     *
+     * @return A {@link SyntaxTree}.
+     */
+    static SyntaxTree read(ByteBuffer buffer, List<MethodPlan> methods) {
+
+        return new SyntaxTree(read(buffer), methods.toArray(new MethodPlan[0]));
+    }
+
+    private static Node read(ByteBuffer buffer) {
+
+        int      literalCount    = buffer.getInt();
+        String[] literalKeys     = new String[literalCount];
+        Node[]   literalChildren = new Node[literalCount];
+        for (int i = 0; i < literalCount; i++) {
+            literalKeys[i]     = RegistrySnapshot.readString(buffer);
+            literalChildren[i] = read(buffer);
+        }
+
+        int        variableCount    = buffer.getInt();
+        String[][] variableOptions  = new String[variableCount][];
+        Node[]     variableChildren = new Node[variableCount];
+        for (int i = 0; i < variableCount; i++) {
+            int optionCount = buffer.getInt();
+
+            if (optionCount >= 0) {
+                variableOptions[i] = new String[optionCount];
+                for (int j = 0; j < optionCount; j++) {
+                    variableOptions[i][j] = RegistrySnapshot.readString(buffer);
+                }
+            }
+            variableChildren[i] = read(buffer);
+        }
+
+        int terminalRank = buffer.getInt();
+        int fillerRank   = buffer.getInt();
+        return new Node(literalKeys, literalChildren, variableOptions, variableChildren, terminalRank, fillerRank);
+    }
+
+    private static int search(Node node, ICommandInput input, int index, int count, int best) {
+
+        if (node.minRank >= best) {
+            return best;
+        }
+
+        if (index == count) {
+            return Math.min(best, node.terminalRank);
+        }
+
+        // A filler requires at least one token, which is guaranteed here.
+        best = Math.min(best, node.fillerRank);
+
+        Node literal = node.findLiteral(input, index);
+        if (literal != null) {
+            best = search(literal, input, index + 1, count, best);
+        }
+
+        for (int i = 0; i < node.variableOptions.length; i++) {
+            if (accepts(node.variableOptions[i], input, index)) {
+                best = search(node.variableChildren[i], input, index + 1, count, best);
+            }
+        }
+        return best;
+    }
+
+    private static boolean accepts(String[] options, ICommandInput input, int index) {
+
+        if (options == null) {
+            return true;
+        }
+
+        for (String option : options) {
+            if (input.tokenEquals(index, option, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int compare(String raw, int start, int end, String key) {
+
+        int length = Math.min(end - start, key.length());
+        for (int i = 0; i < length; i++) {
+            char a = raw.charAt(start + i);
+            char b = key.charAt(i);
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return (end - start) - key.length();
+    }
+
+    private static final class Node {
+
+        private final String[]   literalKeys;
+        private final Node[]     literalChildren;
+        private final String[][] variableOptions;
+        private final Node[]     variableChildren;
+        private final int        terminalRank;
+        private final int        fillerRank;
+        private final int        minRank;
+
+        private Node(String[] literalKeys, Node[] literalChildren, String[][] variableOptions, Node[] variableChildren, int terminalRank, int fillerRank) {
+
+            int minRank = Math.min(terminalRank, fillerRank);
+            for (Node child : literalChildren) {
+                minRank = Math.min(minRank, child.minRank);
+            }
+            for (Node child : variableChildren) {
+                minRank = Math.min(minRank, child.minRank);
+            }
+
+            this.literalKeys      = literalKeys;
+            this.literalChildren  = literalChildren;
+            this.variableOptions  = variableOptions;
+            this.variableChildren = variableChildren;
+            this.terminalRank     = terminalRank;
+            this.fillerRank       = fillerRank;
+            this.minRank          = minRank;
+        }
+
+        private Node findLiteral(ICommandInput input, int index) {
+
+            if (this.literalKeys.length == 0) {
+                return null;
+            }
+
+            String raw   = input.getRaw();
+            int    start = input.getTokenStart(index);
+            int    end   = input.getTokenEnd(index);
+            int    low   = 0;
+            int    high  = this.literalKeys.length - 1;
+
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(raw, start, end, this.literalKeys[mid]);
+
+                if (cmp < 0) {
+                    high = mid - 1;
+                } else if (cmp > 0) {
+                    low = mid + 1;
+                } else {
+                    return this.literalChildren[mid];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Builder {
+
+        private final TreeMap<String, Builder>   literals     = new TreeMap<>();
+        private final Map<List<String>, Builder> variables    = new LinkedHashMap<>();
+        private       int                        terminalRank = NONE;
+        private       int                        fillerRank   = NONE;
+
+        private Node build() {
+
+            String[] literalKeys     = this.literals.keySet().toArray(new String[0]);
+            Node[]   literalChildren = new Node[literalKeys.length];
+            for (int i = 0; i < literalKeys.length; i++) {
+                literalChildren[i] = this.literals.get(literalKeys[i]).build();
+            }
+
+            String[][] variableOptions  = new String[this.variables.size()][];
+            Node[]     variableChildren = new Node[this.variables.size()];
+            int        index            = 0;
+            for (Map.Entry<List<String>, Builder> entry : this.variables.entrySet()) {
+                variableOptions[index]  = entry.getKey() == null ? null : entry.getKey().toArray(new String[0]);
+                variableChildren[index] = entry.getValue().build();
+                index++;
+            }
+
+            return new Node(literalKeys, literalChildren, variableOptions, variableChildren, this.terminalRank, this.fillerRank);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package fr.alexpado.commandr.interfaces;
 
+import fr.alexpado.commandr.exceptions.SyntaxErrorException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -18,6 +19,14 @@ public interface ICommand<T> {
     @NotNull
     ICommandMeta<T> getMeta();
 
+    /**
+     * Called by the {@link ICommandHandler} when this {@link ICommand} is registered. Implementations can use this
+     * method to compute everything that does not depend on the user input, instead of doing it on every execution.
+     *
+     * @see ICommandHandler#register(ICommand)
+     */
+    default void compile() {}
+
     /**
      * Called by the {@link ICommandHandler} in use when this {@link ICommand} is triggered.
      * <p>
@@ -36,4 +45,84 @@ public interface ICommand<T> {
      * @see ICommandHandler#handle(Object, String)
      */
     @Nullable Object execute(@NotNull ICommandContext<T> context, @NotNull String message) throws Exception;
+
+    /**
+     * Called by the {@link ICommandHandler} in use when this {@link ICommand} is triggered. This method receives the
+     * user input already tokenized by the {@link ICommandHandler}, allowing implementations to avoid processing the
+     * raw message again. By default, this will call {@link #execute(ICommandContext, String)} with the raw input.
+     *
+     * @param context The current {@link ICommandContext} for this execution.
+     * @param input   The tokenized user input corresponding to a command.
+     *
+     * @return An object being the result of the execution, or <code>null</code>.
+     *
+     * @throws Exception Thrown when something goes wrong.
+     * @see #execute(ICommandContext, String)
+     */
+    default @Nullable Object execute(@NotNull ICommandContext<T> context, @NotNull ICommandInput input) throws Exception {
+
+        return this.execute(context, input.getRaw());
+    }
+
+    /**
+     * Called by the {@link ICommandHandler} in use when this {@link ICommand} is triggered. Contrary to
+     * {@link #execute(ICommandContext, ICommandInput)}, a user input not matching any syntax is reported through the
+     * returned {@link IExecutionResult} instead of a {@link SyntaxErrorException}.
+     * <p>
+     * By default, this will call {@link #execute(ICommandContext, ICommandInput)} and convert any
+     * {@link SyntaxErrorException} into an {@link IExecutionResult}.
+     *
+     * @param context The current {@link ICommandContext} for this execution.
+     * @param input   The tokenized user input corresponding to a command.
+     *
+     * @return An {@link IExecutionResult} representing the outcome of the execution.
+     *
+     * @throws Exception Thrown when something goes wrong within the command.
+     * @see #execute(ICommandContext, ICommandInput)
+     */
+    default @NotNull IExecutionResult tryExecute(@NotNull ICommandContext<T> context, @NotNull ICommandInput input) throws Exception {
+
+        try {
+            return IExecutionResult.success(this.execute(context, input));
+        } catch (SyntaxErrorException e) {
+            return IExecutionResult.syntaxError();
+        }
+    }
+
+    /**
+     * Prepare the execution of this {@link ICommand}, doing right away everything that does not require running the
+     * command body, such as matching the syntax and binding the parameters. This allows an {@link ICommandHandler} to
+     * only offload the command body to another thread.
+     * <p>
+     * By default, nothing is prepared and the returned {@link ICommandInvocation} will call
+     * {@link #tryExecute(ICommandContext, ICommandInput)}.
+     *
+     * @param context The current {@link ICommandContext} for this execution.
+     * @param input   The tokenized user input corresponding to a command.
+     *
+     * @return An {@link ICommandInvocation} running the command body.
+     *
+     * @throws Exception Thrown when something goes wrong while preparing the execution.
+     */
+    default @NotNull ICommandInvocation prepare(@NotNull ICommandContext<T> context, @NotNull ICommandInput input) throws Exception {
+
+        return () -> this.tryExecute(context, input);
+    }
+
+    /**
+     * Remove every result cached by this {@link ICommand}, if any. This should be called when the data used by the
+     * command changed. By default, nothing is cached and nothing is done.
+     */
+    default void invalidateCache() {}
+
+    /**
+     * Discard the syntaxes compiled with the options of the provided key, so that the options are retrieved again on
+     * the next execution. This should be called when the data used by {@link ICommandMeta#getOptions(ICommandContext)}
+     * changed. By default, nothing is cached and nothing is done.
+     *
+     * @param key
+     *         The key of the options, as returned by {@link ICommandMeta#getOptionsKey(ICommandContext)}, or null to
+     *         discard every compiled syntax.
+     */
+    default void invalidateOptions(@Nullable Object key) {}
 }
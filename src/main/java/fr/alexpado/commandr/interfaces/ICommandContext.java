@@ -4,6 +4,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Method;
+import java.util.function.Supplier;
 
 /**
  * Represents a command context.
@@ -27,6 +28,21 @@ public interface ICommandContext<T> {
      */
     <C> void registerClass(@NotNull Class<C> clazz, C instance);
 
+    /**
+     * Associate the class {@code C} to the instance created by the provided {@link Supplier}, so that the instance is
+     * only created if a {@link Method} parameter actually requires it.
+     *
+     * By default, the {@link Supplier} is called immediately: implementations should override this method to defer it.
+     *
+     * @param clazz    The class to associate
+     * @param supplier The {@link Supplier} creating the instance of this class
+     * @param <C>      The type of the class.
+     */
+    default <C> void registerLazyClass(@NotNull Class<C> clazz, @NotNull Supplier<? extends C> supplier) {
+
+        this.registerClass(clazz, supplier.get());
+    }
+
     /**
      * Retrieve the instance associated to the provided class.
      *
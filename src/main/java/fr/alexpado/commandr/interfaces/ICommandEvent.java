@@ -1,5 +1,6 @@
 package fr.alexpado.commandr.interfaces;
 
+import fr.alexpado.commandr.impl.CommandInput;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -61,4 +62,16 @@ public interface ICommandEvent<T> {
      * @return The message representing the command.
      */
     String getMessage();
+
+    /**
+     * Get the tokenized user input that triggered this {@link ICommandEvent}. By default, the message returned by
+     * {@link #getMessage()} is tokenized on every call: implementations should return the input they were created
+     * with.
+     *
+     * @return The {@link ICommandInput} representing the command.
+     */
+    default @NotNull ICommandInput getInput() {
+
+        return new CommandInput(this.getMessage());
+    }
 }
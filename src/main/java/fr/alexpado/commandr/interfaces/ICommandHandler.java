@@ -2,8 +2,15 @@ package fr.alexpado.commandr.interfaces;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Interface representing an {@link ICommand} handler.
@@ -16,10 +23,10 @@ import java.util.Optional;
 public interface ICommandHandler<T> {
 
     /**
-     * Retrieve an {@link Optional} {@link ICommand} matching the provided label.
+     * Retrieve an {@link Optional} {@link ICommand} matching the provided label or alias.
      *
      * @param label
-     *         The label associated to the {@link ICommand} to retrieve
+     *         The label or alias associated to the {@link ICommand} to retrieve
      *
      * @return An {@link Optional} {@link ICommand}
      */
@@ -53,6 +60,58 @@ public interface ICommandHandler<T> {
      */
     ICommandResult<T> handle(@NotNull T emitter, @NotNull String message);
 
+    /**
+     * Start the command execution from the provided emitter without blocking the calling thread on the command
+     * execution. By default, {@link #handle(Object, String)} is called on the common {@link ForkJoinPool}.
+     *
+     * @param emitter
+     *         The object {@link T} emitting a command.
+     * @param message
+     *         The user input corresponding to a command.
+     *
+     * @return A {@link CompletableFuture} completed with the {@link ICommandResult} of the command.
+     */
+    default @NotNull CompletableFuture<ICommandResult<T>> handleAsync(@NotNull T emitter, @NotNull String message) {
+
+        return this.handleAsync(emitter, message, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Start the command execution from the provided emitter, using the provided {@link Executor} to run the command.
+     * By default, {@link #handle(Object, String)} is entirely called on the {@link Executor}.
+     *
+     * @param emitter
+     *         The object {@link T} emitting a command.
+     * @param message
+     *         The user input corresponding to a command.
+     * @param executor
+     *         The {@link Executor} on which the command will be executed.
+     *
+     * @return A {@link CompletableFuture} completed with the {@link ICommandResult} of the command.
+     */
+    default @NotNull CompletableFuture<ICommandResult<T>> handleAsync(@NotNull T emitter, @NotNull String message, @NotNull Executor executor) {
+
+        return CompletableFuture.supplyAsync(() -> this.handle(emitter, message), executor);
+    }
+
+    /**
+     * Handle every provided message, as if {@link #handle(Object, String)} was called for each of them. By default,
+     * the messages are handled one after the other.
+     *
+     * @param messages
+     *         A {@link Collection} of entries associating the object {@link T} emitting a command to the user input.
+     *
+     * @return A {@link List} of {@link ICommandResult}, in the same order as the provided messages.
+     */
+    default @NotNull List<ICommandResult<T>> handleAll(@NotNull Collection<? extends Map.Entry<T, String>> messages) {
+
+        List<ICommandResult<T>> results = new ArrayList<>(messages.size());
+        for (Map.Entry<T, String> message : messages) {
+            results.add(this.handle(message.getKey(), message.getValue()));
+        }
+        return results;
+    }
+
     /**
      * Create an {@link ICommandContext} instance from the provided command emitter {@link T}.
      *
@@ -73,6 +132,20 @@ public interface ICommandHandler<T> {
      */
     @NotNull String getApplicablePrefix(@NotNull T emitter);
 
+    /**
+     * Retrieve every prefix that can be used to match any command for the provided emitter. By default, only the
+     * prefix returned by {@link #getApplicablePrefix(Object)} is used.
+     *
+     * @param emitter
+     *         The object {@link T} emitting a command.
+     *
+     * @return A {@link List} of prefixes to use with this emitter, tried in order.
+     */
+    default @NotNull List<String> getApplicablePrefixes(@NotNull T emitter) {
+
+        return Collections.singletonList(this.getApplicablePrefix(emitter));
+    }
+
     /**
      * Register the provided {@link ICommandListener} within this {@link ICommandHandler}.
      *
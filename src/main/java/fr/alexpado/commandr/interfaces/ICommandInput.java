@@ -0,0 +1,81 @@
+package fr.alexpado.commandr.interfaces;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface representing a user input, tokenized only once when received by the {@link ICommandHandler}.
+ * <p>
+ * Tokens are views (offset and length) over the raw input: no {@link String} is created unless explicitly requested
+ * through {@link #getToken(int)} or {@link #join(int)}.
+ */
+public interface ICommandInput {
+
+    /**
+     * Retrieve the raw user input, as it was received.
+     *
+     * @return The raw user input.
+     */
+    @NotNull String getRaw();
+
+    /**
+     * Retrieve the amount of tokens (words separated by spaces) within the user input.
+     *
+     * @return The amount of tokens.
+     */
+    int getTokenCount();
+
+    /**
+     * Retrieve the index, within {@link #getRaw()}, of the first character of the provided token.
+     *
+     * @param index
+     *         The token index.
+     *
+     * @return The index of the first character of the token.
+     */
+    int getTokenStart(int index);
+
+    /**
+     * Retrieve the index, within {@link #getRaw()}, following the last character of the provided token.
+     *
+     * @param index
+     *         The token index.
+     *
+     * @return The index following the last character of the token.
+     */
+    int getTokenEnd(int index);
+
+    /**
+     * Retrieve the provided token as a {@link String}.
+     *
+     * @param index
+     *         The token index.
+     *
+     * @return The token.
+     */
+    @NotNull String getToken(int index);
+
+    /**
+     * Check if the provided token is equal to the provided value, without creating any {@link String}.
+     *
+     * @param index
+     *         The token index.
+     * @param value
+     *         The value to compare the token with.
+     * @param ignoreCase
+     *         True if the comparison should ignore the case, false otherwise.
+     *
+     * @return True if the token is equal to the value, false otherwise.
+     */
+    boolean tokenEquals(int index, @NotNull String value, boolean ignoreCase);
+
+    /**
+     * Join every token starting from the provided index using a single space.
+     *
+     * @param fromIndex
+     *         The index of the first token to include.
+     *
+     * @return The joined tokens, or an empty {@link String} if there are no tokens to join.
+     */
+    @NotNull String join(int fromIndex);
+
+}
@@ -0,0 +1,33 @@
+package fr.alexpado.commandr.interfaces;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface wrapping the execution of every {@link ICommand} handled by an {@link ICommandHandler}, once its syntax
+ * has been matched and its parameters bound.
+ * <p>
+ * Interceptors are called in registration order, the first registered being the outermost one. Each interceptor
+ * decides whether the execution proceeds by calling {@link ICommandInvocation#invoke()} on the provided invocation,
+ * which runs the next interceptor or the command body, or short-circuits it by returning its own
+ * {@link IExecutionResult}.
+ *
+ * @param <T> The type of the {@link ICommand} emitter.
+ */
+@FunctionalInterface
+public interface ICommandInterceptor<T> {
+
+    /**
+     * Called around the execution of an {@link ICommand}. When the user input did not match any syntax, the provided
+     * {@link ICommandInvocation} is already completed, and invoking it returns the syntax error without running any
+     * command code.
+     *
+     * @param event      The {@link ICommandEvent} of the execution.
+     * @param invocation The {@link ICommandInvocation} running the next interceptor, or the command body.
+     *
+     * @return The {@link IExecutionResult} of the execution.
+     *
+     * @throws Exception Thrown when something goes wrong within the interceptor or the command.
+     */
+    @NotNull IExecutionResult intercept(@NotNull ICommandEvent<T> event, @NotNull ICommandInvocation invocation) throws Exception;
+
+}
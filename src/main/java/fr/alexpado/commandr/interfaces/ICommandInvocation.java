@@ -0,0 +1,75 @@
+package fr.alexpado.commandr.interfaces;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+
+/**
+ * Interface representing an {@link ICommand} execution that has been prepared (syntax matched and parameters bound)
+ * and that only needs to run the command body.
+ *
+ * @see ICommand#prepare(ICommandContext, ICommandInput)
+ */
+@FunctionalInterface
+public interface ICommandInvocation {
+
+    /**
+     * Create an {@link ICommandInvocation} whose outcome is already known, such as a syntax error.
+     *
+     * @param result
+     *         The outcome of the invocation.
+     *
+     * @return A completed {@link ICommandInvocation}.
+     */
+    static @NotNull ICommandInvocation completed(@NotNull IExecutionResult result) {
+
+        return new ICommandInvocation() {
+
+            @Override
+            public boolean isCompleted() {
+
+                return true;
+            }
+
+            @Override
+            public @NotNull IExecutionResult invoke() {
+
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Check if the outcome of this {@link ICommandInvocation} is already known. When this is true, calling
+     * {@link #invoke()} does not run any command code and can be done on any thread.
+     *
+     * @return True if the outcome is already known, false otherwise.
+     */
+    default boolean isCompleted() {
+
+        return false;
+    }
+
+    /**
+     * Retrieve the {@link Method} that will be invoked by this {@link ICommandInvocation}, if known. This allows
+     * method-level settings, such as {@link fr.alexpado.commandr.annotations.RateLimit}, to be applied before running
+     * the command body.
+     *
+     * @return The {@link Method} that will be invoked, or null if unknown.
+     */
+    default @Nullable Method getMethod() {
+
+        return null;
+    }
+
+    /**
+     * Run the command body.
+     *
+     * @return An {@link IExecutionResult} representing the outcome of the execution.
+     *
+     * @throws Exception Thrown when something goes wrong within the command.
+     */
+    @NotNull IExecutionResult invoke() throws Exception;
+
+}
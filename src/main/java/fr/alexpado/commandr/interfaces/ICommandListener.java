@@ -2,8 +2,13 @@ package fr.alexpado.commandr.interfaces;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.time.Duration;
+
 /**
  * Interface for listing to various event of and {@link ICommandHandler}
+ * <p>
+ * Every method does nothing by default: a listener only needs to override the events it cares about, and is never
+ * called for the others.
  *
  * @param <T> The type of the {@link ICommand} emitter.
  */
@@ -11,43 +16,74 @@ public interface ICommandListener<T> {
 
     /**
      * Called when an {@link ICommand} will be executed. You can cancel the {@link ICommand} execution anytime during
-     * this method execution by calling {@link ICommandEvent#setCancelled(boolean)}.
+     * this method execution by calling {@link ICommandEvent#setCancelled(boolean)}. By default, nothing is done.
      *
      * @param event An {@link ICommandEvent} implementation instance.
      */
-    void onCommandExecution(@NotNull ICommandEvent<T> event);
+    default void onCommandExecution(@NotNull ICommandEvent<T> event) {}
 
     /**
-     * Called when an {@link ICommand} execution throws an exception. You may want to handle error display here.
+     * Called when an {@link ICommand} execution throws an exception. You may want to handle error display here. By
+     * default, nothing is done.
      *
      * @param event     An {@link ICommandEvent} implementation instance.
      * @param throwable The {@link Exception} that has been thrown.
      */
-    void onCommandException(@NotNull ICommandEvent<T> event, @NotNull Exception throwable);
+    default void onCommandException(@NotNull ICommandEvent<T> event, @NotNull Exception throwable) {}
 
     /**
      * Called when an {@link ICommand} has been found based on the user input, but no annotated method could be found to
-     * handle the user input.
+     * handle the user input. By default, nothing is done.
      *
      * @param context An {@link ICommandContext} implementation instance.
      */
-    void onSyntaxError(@NotNull ICommandContext<T> context);
+    default void onSyntaxError(@NotNull ICommandContext<T> context) {}
 
     /**
      * Called when an {@link ICommandContext} is created. You may want to use this method to register your custom object
-     * for parameters injection using {@link ICommandContext#registerClass(Class, Object)}.
+     * for parameters injection using {@link ICommandContext#registerClass(Class, Object)}, or
+     * {@link ICommandContext#registerLazyClass(Class, java.util.function.Supplier)} for objects that are costly to
+     * create and only required by some commands. By default, nothing is done.
      *
      * @param context An {@link ICommandEvent} implementation instance.
      */
-    void onContextCreated(@NotNull ICommandContext<T> context);
+    default void onContextCreated(@NotNull ICommandContext<T> context) {}
 
     /**
      * Called when an {@link ICommand} could not be found based on the user input. You may want to handle error display
-     * here.
+     * here. By default, nothing is done.
      *
      * @param handler The {@link ICommandHandler} that was not able to find the {@link ICommand}.
      * @param emitter The emitter of the command.
      * @param command The command that was executed.
      */
-    void onCommandNotFound(@NotNull ICommandHandler<T> handler, @NotNull T emitter, @NotNull String command);
+    default void onCommandNotFound(@NotNull ICommandHandler<T> handler, @NotNull T emitter, @NotNull String command) {}
+
+    /**
+     * Called when a message submitted to a {@link fr.alexpado.commandr.CommandQueue} has been shed because the queue
+     * was overloaded. The message will never be handled. By default, nothing is done.
+     *
+     * @param handler The {@link ICommandHandler} that would have handled the message.
+     * @param emitter The emitter of the message.
+     * @param message The message that has been shed.
+     */
+    default void onOverload(@NotNull ICommandHandler<T> handler, @NotNull T emitter, @NotNull String message) {}
+
+    /**
+     * Called when an {@link ICommand} execution has been refused because its emitter exceeded a
+     * {@link fr.alexpado.commandr.annotations.RateLimit}. The {@link ICommand} will not be executed. By default, nothing
+     * is done.
+     *
+     * @param event      An {@link ICommandEvent} implementation instance.
+     * @param retryAfter The time remaining until the emitter is allowed to execute the {@link ICommand} again.
+     */
+    default void onRateLimited(@NotNull ICommandEvent<T> event, @NotNull Duration retryAfter) {}
+
+    /**
+     * Called when the result of an {@link ICommand} has been retrieved from the cache of a method annotated with
+     * {@link fr.alexpado.commandr.annotations.Cacheable}, without invoking the method. By default, nothing is done.
+     *
+     * @param event An {@link ICommandEvent} implementation instance.
+     */
+    default void onCacheHit(@NotNull ICommandEvent<T> event) {}
 }
@@ -4,6 +4,7 @@ import fr.alexpado.syntaxic.interfaces.ISyntax;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +26,18 @@ public interface ICommandMeta<T> {
     @Nullable
     String getDescription();
 
+    /**
+     * Retrieves the aliases associated with an {@link ICommand}. Aliases are alternative labels that can be used to
+     * trigger the {@link ICommand}.
+     *
+     * @return A {@link List} of aliases.
+     */
+    @NotNull
+    default List<String> getAliases() {
+
+        return Collections.emptyList();
+    }
+
     /**
      * Retrieve the {@link Map} associating an {@link ISyntax}'s name to its possible values.
      *
@@ -35,4 +48,52 @@ public interface ICommandMeta<T> {
     @Nullable
     Map<String, List<String>> getOptions(@NotNull ICommandContext<T> context);
 
+    /**
+     * Retrieves how the result of {@link #getOptions(ICommandContext)} may be reused between executions. Reusing the
+     * options allows the syntaxes to be compiled only once. By default, the options are considered
+     * {@link OptionsScope#DYNAMIC}.
+     *
+     * @return An {@link OptionsScope}.
+     */
+    @NotNull
+    default OptionsScope getOptionsScope() {
+
+        return OptionsScope.DYNAMIC;
+    }
+
+    /**
+     * Retrieves the key identifying the options for the provided {@link ICommandContext}, when using
+     * {@link OptionsScope#KEYED}. Two contexts with equal keys must have the same options.
+     *
+     * @param context The current {@link ICommandContext} for this execution.
+     *
+     * @return The key of the options.
+     */
+    @Nullable
+    default Object getOptionsKey(@NotNull ICommandContext<T> context) {
+
+        return null;
+    }
+
+    /**
+     * Defines how the result of {@link #getOptions(ICommandContext)} may be reused.
+     */
+    enum OptionsScope {
+
+        /**
+         * The options are the same for every execution, until invalidated.
+         */
+        STATIC,
+
+        /**
+         * The options are the same for every execution sharing the same {@link #getOptionsKey(ICommandContext)}, until
+         * invalidated.
+         */
+        KEYED,
+
+        /**
+         * The options may change at every execution, and are retrieved each time.
+         */
+        DYNAMIC
+    }
 }
@@ -0,0 +1,95 @@
+package fr.alexpado.commandr.interfaces;
+
+import fr.alexpado.commandr.impl.metrics.MetricsSnapshot;
+import fr.alexpado.commandr.impl.metrics.NoopMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+
+/**
+ * Interface representing the metrics recorded by an {@link ICommandHandler} while handling messages: the outcome of
+ * every message, the amount of commands being executed and their latency.
+ * <p>
+ * Recording methods are called from any thread, concurrently, and must not block.
+ */
+public interface ICommandMetrics {
+
+    /**
+     * Retrieve the shared {@link ICommandMetrics} recording nothing. When in use, the {@link ICommandHandler} does not
+     * even measure time.
+     *
+     * @return An {@link ICommandMetrics} recording nothing.
+     */
+    static @NotNull ICommandMetrics noop() {
+
+        return NoopMetrics.INSTANCE;
+    }
+
+    /**
+     * Check if this {@link ICommandMetrics} records anything. When false, no recording method will be called.
+     *
+     * @return True if metrics are recorded, false otherwise.
+     */
+    boolean isEnabled();
+
+    /**
+     * Record a message for which no {@link ICommand} could be found.
+     */
+    void recordNotFound();
+
+    /**
+     * Record the start of the handling of a message targeting the provided {@link ICommand}.
+     *
+     * @param command
+     *         The {@link ICommand} targeted by the message.
+     */
+    void recordStarted(@NotNull ICommand<?> command);
+
+    /**
+     * Record the end of the handling of a message targeting the provided {@link ICommand}.
+     *
+     * @param command
+     *         The {@link ICommand} targeted by the message.
+     * @param method
+     *         The {@link Method} matched by the user input, or null if unknown.
+     * @param outcome
+     *         The {@link Outcome} of the handling.
+     * @param duration
+     *         The time elapsed since the command has been found, in nanoseconds.
+     */
+    void recordCompleted(@NotNull ICommand<?> command, @Nullable Method method, @NotNull Outcome outcome, long duration);
+
+    /**
+     * Retrieve an immutable copy of the metrics recorded so far.
+     *
+     * @return A {@link MetricsSnapshot}.
+     */
+    @NotNull MetricsSnapshot getSnapshot();
+
+    /**
+     * Outcome of the handling of a message targeting an existing {@link ICommand}.
+     */
+    enum Outcome {
+
+        /**
+         * The command has been executed.
+         */
+        SUCCESS,
+
+        /**
+         * The user input did not match any syntax of the command.
+         */
+        SYNTAX_ERROR,
+
+        /**
+         * The execution has been cancelled by a listener, the command or a rate limit.
+         */
+        CANCELLED,
+
+        /**
+         * The command threw an exception.
+         */
+        EXCEPTION
+    }
+}
@@ -3,8 +3,21 @@ package fr.alexpado.commandr.interfaces;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Optional;
+
 public interface ICommandResult<T> {
 
+    /**
+     * Check whether the user input targeted a registered command. When no command was targeted, no
+     * {@link ICommandContext} has been created and {@link #findContext()} is empty.
+     *
+     * @return True if a command has been found, false otherwise.
+     */
+    default boolean isCommandFound() {
+
+        return true;
+    }
+
     /**
      * Check whether a result is available (command executed).
      *
@@ -26,7 +39,24 @@ public interface ICommandResult<T> {
      * Retrieve the context that was in-use when this {@link ICommandResult} was created.
      *
      * @return An {@link ICommandContext}
+     *
+     * @throws IllegalStateException
+     *         Threw if {@link #isCommandFound()} is false.
+     * @deprecated Messages that do not target any registered command no longer create an {@link ICommandContext}, so
+     *         this method throws for their results. Use {@link #findContext()} instead.
      */
+    @Deprecated
     @NotNull ICommandContext<T> getContext();
 
+    /**
+     * Retrieve the context that was in-use when this {@link ICommandResult} was created, if any.
+     *
+     * @return An {@link Optional} containing the {@link ICommandContext}, or an empty {@link Optional} if
+     *         {@link #isCommandFound()} is false.
+     */
+    default @NotNull Optional<ICommandContext<T>> findContext() {
+
+        return this.isCommandFound() ? Optional.of(this.getContext()) : Optional.empty();
+    }
+
 }
@@ -0,0 +1,94 @@
+package fr.alexpado.commandr.interfaces;
+
+import fr.alexpado.commandr.impl.ExecutionResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Interface representing the outcome of {@link ICommand#tryExecute(ICommandContext, ICommandInput)}, allowing to
+ * report a syntax error or a cancellation without throwing any exception.
+ */
+public interface IExecutionResult {
+
+    /**
+     * Retrieve an {@link IExecutionResult} representing a successful execution.
+     *
+     * @param data
+     *         The data returned by the command.
+     *
+     * @return An {@link IExecutionResult} with the {@link Status#SUCCESS} status.
+     */
+    static @NotNull IExecutionResult success(@Nullable Object data) {
+
+        return ExecutionResult.success(data);
+    }
+
+    /**
+     * Retrieve the shared {@link IExecutionResult} representing a user input not matching any syntax.
+     *
+     * @return An {@link IExecutionResult} with the {@link Status#SYNTAX_ERROR} status.
+     */
+    static @NotNull IExecutionResult syntaxError() {
+
+        return ExecutionResult.syntaxError();
+    }
+
+    /**
+     * Retrieve the shared {@link IExecutionResult} representing a cancelled execution.
+     *
+     * @return An {@link IExecutionResult} with the {@link Status#CANCELLED} status.
+     */
+    static @NotNull IExecutionResult cancelled() {
+
+        return ExecutionResult.cancelled();
+    }
+
+    /**
+     * Retrieve the {@link Status} of the execution.
+     *
+     * @return A {@link Status}.
+     */
+    @NotNull Status getStatus();
+
+    /**
+     * Retrieve the data returned by the command. The data may be null.
+     *
+     * @return The command's result.
+     *
+     * @throws IllegalStateException
+     *         Threw if {@link #getStatus()} is not {@link Status#SUCCESS}.
+     */
+    @Nullable Object getResult();
+
+    /**
+     * Check if the result comes from a {@link fr.alexpado.commandr.annotations.Cacheable} cache, in which case the
+     * command has not been invoked.
+     *
+     * @return True if the result has been cached, false otherwise.
+     */
+    default boolean isCached() {
+
+        return false;
+    }
+
+    /**
+     * Outcome of an {@link ICommand} execution.
+     */
+    enum Status {
+
+        /**
+         * The user input has been matched and the command executed.
+         */
+        SUCCESS,
+
+        /**
+         * The user input did not match any syntax of the command.
+         */
+        SYNTAX_ERROR,
+
+        /**
+         * The command decided not to execute.
+         */
+        CANCELLED
+    }
+}
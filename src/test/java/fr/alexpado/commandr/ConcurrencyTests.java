@@ -0,0 +1,364 @@
+package fr.alexpado.commandr;
+
+import fr.alexpado.commandr.annotations.Cacheable;
+import fr.alexpado.commandr.data.AutoCommandHandler;
+import fr.alexpado.commandr.data.commands.CachedCommand;
+import fr.alexpado.commandr.data.commands.HelloCommand;
+import fr.alexpado.commandr.data.commands.PingCommand;
+import fr.alexpado.commandr.impl.ResultCache;
+import fr.alexpado.commandr.interfaces.*;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrencyTests {
+
+    private static final int HANDLER_THREADS = 8;
+    private static final int COMMANDS        = 500;
+
+    private static ICommandListener<Object> countingListener(AtomicInteger counter) {
+
+        return new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {
+
+                counter.incrementAndGet();
+            }
+
+            @Override
+            public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {}
+
+            @Override
+            public void onSyntaxError(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onContextCreated(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {}
+        };
+    }
+
+    @Test
+    @DisplayName("Should handle commands from many threads while registering commands and listeners")
+    public void shouldHandleWhileRegisteringTest() throws Exception {
+
+        CommandHandler<Object> handler = new AutoCommandHandler();
+        handler.register(new HelloCommand());
+
+        ExecutorService               executor = Executors.newFixedThreadPool(HANDLER_THREADS + 2);
+        CountDownLatch                start    = new CountDownLatch(1);
+        AtomicInteger                 executed = new AtomicInteger();
+        List<Future<?>>               futures  = new ArrayList<>();
+        ConcurrentLinkedQueue<String> errors   = new ConcurrentLinkedQueue<>();
+
+        futures.add(executor.submit(() -> {
+            start.await();
+            for (int i = 0; i < COMMANDS; i++) {
+                handler.register(new PingCommand("ping" + i));
+            }
+            return null;
+        }));
+
+        futures.add(executor.submit(() -> {
+            start.await();
+            for (int i = 0; i < 200; i++) {
+                ICommandListener<Object> listener = countingListener(executed);
+                handler.addEventListener(listener);
+                handler.removeEventListener(listener);
+            }
+            return null;
+        }));
+
+        for (int thread = 0; thread < HANDLER_THREADS; thread++) {
+            int seed = thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 5_000; i++) {
+                    ICommandResult<Object> hello = handler.handle(seed, "!hello world");
+                    if (!"Hello World!".equals(hello.getResult())) {
+                        errors.add("Unexpected result " + hello.getResult());
+                    }
+
+                    String                 label = "ping" + random.nextInt(COMMANDS);
+                    ICommandResult<Object> ping  = handler.handle(seed, "!" + label);
+                    if (ping.isCommandFound() && !label.equals(ping.getResult())) {
+                        errors.add("Unexpected result " + ping.getResult() + " for " + label);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Assertions.assertTrue(errors.isEmpty(), String.join("\n", errors));
+        Assertions.assertEquals(COMMANDS + 1, handler.getCommands().size());
+        Assertions.assertEquals(0, handler.getRegistry().getListeners().length);
+        for (int i = 0; i < COMMANDS; i++) {
+            Assertions.assertEquals("ping" + i, handler.handle(this, "!ping" + i).getResult());
+        }
+    }
+
+    @Test
+    @DisplayName("Should only expose an unmodifiable view of the commands")
+    public void shouldExposeUnmodifiableCommandsTest() {
+
+        CommandHandler<Object> handler = new AutoCommandHandler();
+        handler.register(new HelloCommand());
+
+        Map<String, ICommand<Object>> commands = handler.getCommands();
+        long                          version  = handler.getRegistry().getVersion();
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> commands.put("ping", new PingCommand("ping")));
+
+        handler.register(new PingCommand("ping"));
+        Assertions.assertEquals(1, commands.size(), "The snapshot has been modified.");
+        Assertions.assertEquals(version + 1, handler.getRegistry().getVersion());
+    }
+
+    @Test
+    @DisplayName("Should handle the messages of each emitter in order while emitters run in parallel")
+    public void shouldKeepEmitterOrderTest() throws Exception {
+
+        CommandHandler<Object>     handler  = new AutoCommandHandler();
+        Map<Object, List<String>>  received = new ConcurrentHashMap<>();
+        ExecutorService            executor = Executors.newFixedThreadPool(HANDLER_THREADS);
+        StripedDispatcher<Object>  striped  = new StripedDispatcher<>(handler, emitter -> emitter, 4, executor);
+        List<CompletableFuture<?>> futures  = new ArrayList<>();
+        handler.register(new HelloCommand());
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {
+
+                received.computeIfAbsent(event.getEmitter(), emitter -> new ArrayList<>()).add(event.getInput().getToken(1));
+            }
+
+            @Override
+            public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {}
+
+            @Override
+            public void onSyntaxError(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onContextCreated(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {}
+        });
+
+        for (int i = 0; i < 1000; i++) {
+            futures.add(striped.dispatch("user" + (i % 10), "!hello " + i));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+        // Futures complete before their stripe updates its depth: wait for the drains to end.
+        Assertions.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(10, received.size());
+        for (int user = 0; user < 10; user++) {
+            List<String> messages = received.get("user" + user);
+
+            Assertions.assertEquals(100, messages.size());
+            for (int i = 0; i < messages.size(); i++) {
+                Assertions.assertEquals(String.valueOf(i * 10 + user), messages.get(i), "Messages were reordered.");
+            }
+        }
+
+        Assertions.assertEquals(0, Arrays.stream(striped.getQueueDepths()).sum());
+        Assertions.assertTrue(striped.getPeakQueueDepth(striped.getStripe("user0")) > 0);
+    }
+
+    @Test
+    @DisplayName("Should shed the oldest messages when the queue is full")
+    public void shouldShedOldestMessagesTest() throws Exception {
+
+        CommandHandler<Object> handler  = new AutoCommandHandler();
+        CountDownLatch         started  = new CountDownLatch(1);
+        CountDownLatch         release  = new CountDownLatch(1);
+        List<String>           received = new CopyOnWriteArrayList<>();
+        List<String>           shed     = new CopyOnWriteArrayList<>();
+        handler.register(new HelloCommand());
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {
+
+                received.add(event.getMessage());
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {}
+
+            @Override
+            public void onSyntaxError(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onContextCreated(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {}
+
+            @Override
+            public void onOverload(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String message) {
+
+                shed.add(message);
+            }
+        });
+
+        try (CommandQueue<Object> queue = new CommandQueue<>(handler, 2, 1, CommandQueue.OverloadPolicy.DROP_OLDEST)) {
+            Assertions.assertTrue(queue.submit(this, "!hello 0"));
+            Assertions.assertTrue(started.await(10, TimeUnit.SECONDS), "The worker did not start.");
+
+            for (int i = 1; i <= 4; i++) {
+                Assertions.assertTrue(queue.submit(this, "!hello " + i));
+            }
+
+            Assertions.assertEquals(2, queue.getQueueDepth());
+            Assertions.assertEquals(2, queue.getShedCount());
+            release.countDown();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (queue.getHandledCount() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertEquals(Arrays.asList("!hello 0", "!hello 3", "!hello 4"), received);
+            Assertions.assertEquals(Arrays.asList("!hello 1", "!hello 2"), shed);
+            Assertions.assertTrue(queue.getMaxWaitTime(TimeUnit.NANOSECONDS) > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the workers running when handling a message fails")
+    public void shouldSurviveFailingListenerTest() throws Exception {
+
+        CommandHandler<Object> handler  = new AutoCommandHandler();
+        List<String>           received = new CopyOnWriteArrayList<>();
+        List<Throwable>        failures = new CopyOnWriteArrayList<>();
+        handler.register(new HelloCommand());
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {
+
+                received.add(event.getMessage());
+                if (received.size() == 1) {
+                    throw new AssertionError("Failing listener");
+                }
+            }
+        });
+
+        try (CommandQueue<Object> queue = new CommandQueue<>(handler, 4, 1, CommandQueue.OverloadPolicy.DROP_NEWEST)) {
+            queue.setFailureHandler((thread, throwable) -> failures.add(throwable));
+            Assertions.assertTrue(queue.submit(this, "!hello 0"));
+            Assertions.assertTrue(queue.submit(this, "!hello 1"));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (queue.getHandledCount() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertEquals(Arrays.asList("!hello 0", "!hello 1"), received);
+            Assertions.assertEquals(1, queue.getFailedCount());
+            Assertions.assertEquals(1, failures.size());
+            Assertions.assertTrue(failures.get(0) instanceof AssertionError);
+        }
+    }
+
+    @Test
+    @DisplayName("Should handle a batch of messages and return the results in input order")
+    public void shouldHandleBatchInOrderTest() {
+
+        CommandHandler<Object>          handler  = new AutoCommandHandler();
+        List<Map.Entry<Object, String>> messages = new ArrayList<>();
+        ForkJoinPool                    pool     = new ForkJoinPool(HANDLER_THREADS);
+        handler.register(new HelloCommand());
+
+        for (int i = 0; i < 1000; i++) {
+            String message = i % 3 == 0 ? "!unknown " + i : "!hello " + i;
+            messages.add(new AbstractMap.SimpleImmutableEntry<>("user" + (i % 10), message));
+        }
+
+        for (boolean keepEmitterOrder : new boolean[]{false, true}) {
+            List<ICommandResult<Object>> results = handler.handleAll(messages, keepEmitterOrder, pool);
+
+            Assertions.assertEquals(messages.size(), results.size());
+            for (int i = 0; i < results.size(); i++) {
+                if (i % 3 == 0) {
+                    Assertions.assertFalse(results.get(i).isCommandFound());
+                } else {
+                    Assertions.assertEquals("Hello, " + i + "!", results.get(i).getResult());
+                }
+            }
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep a result cache bounded while it is used from many threads")
+    public void shouldBoundResultCacheTest() throws Exception {
+
+        Cacheable                     cacheable = CachedCommand.class.getMethod("lookup", String.class).getAnnotation(Cacheable.class);
+        ResultCache                   cache     = new ResultCache(cacheable);
+        ExecutorService               executor  = Executors.newFixedThreadPool(HANDLER_THREADS);
+        CountDownLatch                start     = new CountDownLatch(1);
+        List<Future<?>>               futures   = new ArrayList<>();
+        ConcurrentLinkedQueue<String> errors    = new ConcurrentLinkedQueue<>();
+
+        for (int thread = 0; thread < HANDLER_THREADS; thread++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    String          name  = "name" + random.nextInt(16);
+                    ResultCache.Key key   = new ResultCache.Key(Collections.singletonList(name), null);
+                    Object          value = cache.get(key);
+
+                    if (value == ResultCache.MISS) {
+                        cache.put(key, name);
+                    } else if (!name.equals(value)) {
+                        errors.add("Unexpected value " + value + " for " + name);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Assertions.assertTrue(errors.isEmpty(), String.join("\n", errors));
+        Assertions.assertTrue(cache.size() <= cacheable.maxSize(), "The cache exceeded its size: " + cache.size());
+    }
+}
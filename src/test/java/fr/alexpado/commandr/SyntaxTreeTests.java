@@ -0,0 +1,147 @@
+package fr.alexpado.commandr;
+
+import fr.alexpado.commandr.annotations.Command;
+import fr.alexpado.commandr.impl.CommandInput;
+import fr.alexpado.commandr.impl.plan.MethodPlan;
+import fr.alexpado.commandr.impl.plan.SyntaxMatch;
+import fr.alexpado.commandr.impl.plan.SyntaxPattern;
+import fr.alexpado.commandr.impl.plan.SyntaxTree;
+import fr.alexpado.commandr.interfaces.ICommandInput;
+import fr.alexpado.syntaxic.SyntaxService;
+import fr.alexpado.syntaxic.SyntaxUtils;
+import fr.alexpado.syntaxic.interfaces.IMatchingResult;
+import fr.alexpado.syntaxic.interfaces.ISyntaxContainer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.*;
+
+public class SyntaxTreeTests {
+
+    private static final String[] LITERALS = {"a", "b", "world", "echo"};
+    private static final String[] TOKENS   = {"a", "b", "world", "echo", "x", "John"};
+
+    private static Command command(String value, int order) {
+
+        return new Command() {
+
+            @Override
+            public String value() {
+
+                return value;
+            }
+
+            @Override
+            public int order() {
+
+                return order;
+            }
+
+            @Override
+            public Class<? extends Annotation> annotationType() {
+
+                return Command.class;
+            }
+        };
+    }
+
+    private static String randomSyntax(Random random) {
+
+        int          size     = random.nextInt(5);
+        List<String> elements = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            int kind = random.nextInt(20);
+
+            if (kind < 10) {
+                elements.add(LITERALS[random.nextInt(LITERALS.length)]);
+            } else if (kind < 17 || i < size - 1) {
+                elements.add("[v" + i + "]");
+            } else {
+                elements.add("f" + i + "...");
+            }
+        }
+        return String.join(" ", elements);
+    }
+
+    private static String randomInput(Random random) {
+
+        int           size    = random.nextInt(6);
+        StringBuilder builder = new StringBuilder("!cmd");
+
+        for (int i = 0; i < size; i++) {
+            builder.append(' ').append(TOKENS[random.nextInt(TOKENS.length)]);
+        }
+        return builder.toString();
+    }
+
+    public void target() {}
+
+    @Test
+    @DisplayName("Should match exactly like the syntax service on random inputs")
+    public void shouldMatchLikeSyntaxServiceTest() throws NoSuchMethodException {
+
+        Random random = new Random(42);
+        Method target = SyntaxTreeTests.class.getMethod("target");
+
+        for (int set = 0; set < 500; set++) {
+            int           count  = 1 + random.nextInt(8);
+            List<Integer> orders = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                orders.add(i);
+            }
+            Collections.shuffle(orders, random);
+
+            Map<String, List<String>> options = new HashMap<>();
+            if (random.nextBoolean()) {
+                options.put("v" + random.nextInt(3), Arrays.asList("a", "John"));
+            }
+
+            List<MethodPlan>                  methods   = new ArrayList<>();
+            Map<MethodPlan, ISyntaxContainer> syntaxMap = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                MethodPlan method = new MethodPlan(target, command(randomSyntax(random), orders.get(i)));
+                methods.add(method);
+                syntaxMap.put(method, SyntaxUtils.toContainer(options, method.getSyntax(), method.getOrder()));
+            }
+            methods.sort(Comparator.comparingInt(MethodPlan::getOrder));
+
+            SyntaxService<MethodPlan> service = new SyntaxService<>(syntaxMap);
+            SyntaxTree                tree    = SyntaxTree.compile(methods, options);
+            Assertions.assertNotNull(tree, "The syntaxes could not be compiled.");
+
+            for (int i = 0; i < 200; i++) {
+                ICommandInput                         input    = new CommandInput(randomInput(random));
+                Optional<IMatchingResult<MethodPlan>> expected = service.getMatchingResult(input.join(1));
+                SyntaxMatch                           actual   = tree.match(input, 1);
+                String                                message  = methods + " with input '" + input.getRaw() + "'";
+
+                Assertions.assertEquals(expected.isPresent(), actual != null, message);
+                if (actual == null) {
+                    continue;
+                }
+
+                Assertions.assertSame(expected.get().getIdentifier(), actual.getMethod(), message);
+                SyntaxPattern pattern = actual.getMethod().getPattern();
+                for (int position = 0; position < pattern.size(); position++) {
+                    if (pattern.getKind(position) != SyntaxPattern.Kind.LITERAL) {
+                        String name = pattern.getName(position);
+                        Assertions.assertEquals(expected.get().getParameter(name).orElse(null), actual.getValue(name), message);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse to compile unsupported syntaxes")
+    public void shouldNotParseUnsupportedSyntaxTest() {
+
+        Assertions.assertNull(SyntaxPattern.parse("echo text... more"));
+        Assertions.assertNull(SyntaxPattern.parse("[broken"));
+        Assertions.assertEquals("hello [name] text...", String.valueOf(SyntaxPattern.parse(" hello  [name] text... ")));
+    }
+}
@@ -1,17 +1,60 @@
 package fr.alexpado.commandr;
 
 
+import fr.alexpado.commandr.annotations.RateLimit;
 import fr.alexpado.commandr.data.AutoCommandHandler;
+import fr.alexpado.commandr.data.IsolatedClassLoader;
+import fr.alexpado.commandr.data.commands.BrokenCommand;
+import fr.alexpado.commandr.data.commands.CachedCommand;
 import fr.alexpado.commandr.data.commands.HelloCommand;
+import fr.alexpado.commandr.data.commands.LimitedCommand;
+import fr.alexpado.commandr.data.commands.OptionsCommand;
+import fr.alexpado.commandr.data.commands.PingCommand;
+import fr.alexpado.commandr.data.commands.PrimitiveCommand;
+import fr.alexpado.commandr.data.commands.StaleCommand;
+import fr.alexpado.commandr.exceptions.SyntaxErrorException;
+import fr.alexpado.commandr.impl.CommandContext;
+import fr.alexpado.commandr.impl.CommandImpl;
+import fr.alexpado.commandr.impl.CommandInput;
+import fr.alexpado.commandr.impl.CommandScanner;
+import fr.alexpado.commandr.impl.ListenerChain;
+import fr.alexpado.commandr.impl.RateLimits;
+import fr.alexpado.commandr.impl.RegistrationReport;
+import fr.alexpado.commandr.impl.metrics.CommandMetrics;
+import fr.alexpado.commandr.impl.metrics.HistogramSnapshot;
+import fr.alexpado.commandr.impl.metrics.LatencyHistogram;
+import fr.alexpado.commandr.impl.metrics.MetricsSnapshot;
+import fr.alexpado.commandr.impl.plan.CommandDispatcher;
+import fr.alexpado.commandr.impl.plan.CommandPlan;
 import fr.alexpado.commandr.interfaces.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Tests {
 
@@ -237,5 +280,809 @@ public class Tests {
         Assertions.assertEquals(0, latch.getCount());
     }
 
+    @Test
+    @DisplayName("Should compile the dispatch plan only once per command class")
+    public void shouldShareCompiledPlanTest() {
+
+        HelloCommand first  = new HelloCommand();
+        HelloCommand second = new HelloCommand();
+        first.compile();
+        second.compile();
+
+        Assertions.assertSame(CommandPlan.of(HelloCommand.class), CommandPlan.of(HelloCommand.class));
+        Assertions.assertEquals(7, CommandPlan.of(HelloCommand.class).getMethods().size());
+        Assertions.assertSame(CommandPlan.of(HelloCommand.class).getService(null), CommandPlan.of(HelloCommand.class).getService(Collections.emptyMap()));
+    }
+
+    @Test
+    @DisplayName("Should report the exception thrown by the command without wrapping it")
+    public void shouldReportUnwrappedCommandExceptionTest() {
+
+        ICommandHandler<Object> handler = new AutoCommandHandler();
+        handler.register(new HelloCommand());
+        AtomicReference<Exception> exception = new AtomicReference<>();
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {}
+
+            @Override
+            public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {
+
+                exception.set(throwable);
+            }
+
+            @Override
+            public void onSyntaxError(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onContextCreated(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {}
+        });
+
+        ICommandResult result = handler.handle(this, "!hello fail");
+
+        Assertions.assertFalse(result.isResultAvailable(), "A result has been found.");
+        Assertions.assertTrue(exception.get() instanceof UnsupportedOperationException, "The exception has been wrapped.");
+    }
+
+    @Test
+    @DisplayName("Should report errors thrown by a command to the onCommandException listener")
+    public void shouldReportCommandErrorTest() {
+
+        ICommandHandler<Object> handler = new AutoCommandHandler();
+        handler.register(new HelloCommand());
+        AtomicReference<Exception> exception = new AtomicReference<>();
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {}
+
+            @Override
+            public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {
+
+                exception.set(throwable);
+            }
+
+            @Override
+            public void onSyntaxError(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onContextCreated(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {}
+        });
+
+        ICommandResult result = handler.handle(this, "!hello assert");
+
+        Assertions.assertFalse(result.isResultAvailable(), "A result has been found.");
+        Assertions.assertTrue(exception.get() instanceof InvocationTargetException, "The error has not been wrapped.");
+        Assertions.assertTrue(exception.get().getCause() instanceof AssertionError, "The error has been lost.");
+    }
+
+    @Test
+    @DisplayName("Should refuse to register a command with unresolvable parameters")
+    public void shouldRefuseUnresolvableParameterTest() {
+
+        ICommandHandler<Object> handler = new AutoCommandHandler();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> handler.register(new BrokenCommand()));
+        Assertions.assertTrue(handler.getCommand("broken").isEmpty(), "The command has been registered.");
+        Assertions.assertThrows(IllegalStateException.class, () -> handler.register(new PrimitiveCommand()));
+        Assertions.assertTrue(handler.getCommand("primitive").isEmpty(), "The command has been registered.");
+    }
+
+    @Test
+    @DisplayName("Should tokenize the user input only once")
+    public void shouldTokenizeInputTest() {
+
+        ICommandInput input = new CommandInput("  !hello   world  John ");
+
+        Assertions.assertEquals(3, input.getTokenCount());
+        Assertions.assertEquals("!hello", input.getToken(0));
+        Assertions.assertTrue(input.tokenEquals(1, "WORLD", true));
+        Assertions.assertFalse(input.tokenEquals(1, "WORLD", false));
+        Assertions.assertEquals("world John", input.join(1));
+        Assertions.assertEquals("John", input.join(2));
+        Assertions.assertEquals("", input.join(3));
+    }
+
+    @Test
+    @DisplayName("Should execute the command when the input contains extra spaces")
+    public void shouldReturnHelloWorldWithExtraSpacesTest() {
+
+        ICommandHandler<Object> handler = new AutoCommandHandler();
+        handler.register(new HelloCommand());
+        ICommandResult result = handler.handle(this, "!hello   world  John");
+
+        Assertions.assertTrue(result.isResultAvailable(), "No result available.");
+        Assertions.assertEquals("Hello World, John!", result.getResult());
+    }
+
+    @Test
+    @DisplayName("Should reject messages without prefix before creating a context")
+    public void shouldRejectUnprefixedMessageTest() {
+
+        CommandHandler<Object> handler = new AutoCommandHandler();
+        handler.register(new HelloCommand());
+        AtomicInteger contexts = new AtomicInteger();
+        AtomicInteger notFound = new AtomicInteger();
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {}
+
+            @Override
+            public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {}
+
+            @Override
+            public void onSyntaxError(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onContextCreated(@NotNull ICommandContext<Object> context) {
+
+                contexts.incrementAndGet();
+            }
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {
+
+                notFound.incrementAndGet();
+            }
+        });
+
+        ICommandResult result = handler.handle(this, "hello world");
+
+        Assertions.assertFalse(result.isCommandFound(), "A command has been found.");
+        Assertions.assertFalse(result.findContext().isPresent(), "A context has been created.");
+        Assertions.assertSame(result, handler.handle(this, "!unknown"), "The not found result is not shared.");
+        Assertions.assertEquals(0, contexts.get());
+        Assertions.assertEquals(2, notFound.get());
+
+        handler.setIgnoreUnprefixedMessages(true);
+        handler.handle(this, "hello world");
+        handler.handle(this, "!unknown");
+        Assertions.assertEquals(3, notFound.get());
+    }
+
+    @Test
+    @DisplayName("Should execute the command using any prefix, alias and case")
+    public void shouldResolveAliasAndPrefixesTest() {
+
+        ICommandHandler<Object> handler = new AutoCommandHandler() {
+
+            @Override
+            public @NotNull List<String> getApplicablePrefixes(@NotNull Object emitter) {
+
+                return Arrays.asList("!", "bot:");
+            }
+        };
+        handler.register(new HelloCommand());
+
+        Assertions.assertEquals("Hello World!", handler.handle(this, "!HeLLo world").getResult());
+        Assertions.assertEquals("Hello World!", handler.handle(this, "!hi world").getResult());
+        Assertions.assertEquals("Hello World!", handler.handle(this, "BOT:hi world").getResult());
+        Assertions.assertFalse(handler.handle(this, "!he!llo world").isCommandFound(), "The prefix has been removed from the label.");
+        Assertions.assertEquals(1, handler.getCommands().size());
+        Assertions.assertThrows(IllegalStateException.class, () -> handler.register(new HelloCommand()));
+    }
+
+    @Test
+    @DisplayName("Should report syntax errors without throwing through tryExecute")
+    public void shouldReportSyntaxErrorWithoutExceptionTest() throws Exception {
+
+        ICommandHandler<Object> handler = new AutoCommandHandler();
+        HelloCommand            command = new HelloCommand();
+        ICommandContext<Object> context = handler.createContext(this);
+        ICommandInput           input   = new CommandInput("!hello this command does not exists");
+
+        Assertions.assertEquals(IExecutionResult.Status.SYNTAX_ERROR, command.tryExecute(context, input).getStatus());
+        Assertions.assertEquals("Hello, John!", command.tryExecute(context, new CommandInput("!hello John")).getResult());
+        Assertions.assertThrows(SyntaxErrorException.class, () -> command.execute(context, input));
+    }
+
+    @Test
+    @DisplayName("Should only run the command body on the executor when handled asynchronously")
+    public void shouldOffloadCommandBodyTest() throws Exception {
+
+        CommandHandler<Object> handler = new AutoCommandHandler();
+        AtomicInteger          offload = new AtomicInteger();
+        handler.register(new HelloCommand());
+
+        Executor executor = task -> {
+            offload.incrementAndGet();
+            new Thread(task).start();
+        };
+
+        Assertions.assertEquals("Hello, John!", handler.handleAsync(this, "!hello John", executor).get().getResult());
+        Assertions.assertEquals(1, offload.get());
+
+        CompletableFuture<ICommandResult<Object>> notFound    = handler.handleAsync(this, "!unknown", executor);
+        CompletableFuture<ICommandResult<Object>> syntaxError = handler.handleAsync(this, "!hello a b c", executor);
+
+        Assertions.assertTrue(notFound.isDone(), "Unknown commands should not be offloaded.");
+        Assertions.assertTrue(syntaxError.isDone(), "Syntax errors should not be offloaded.");
+        Assertions.assertFalse(syntaxError.get().isResultAvailable());
+        Assertions.assertEquals(1, offload.get());
+    }
+
+    @Test
+    @DisplayName("Should only bind the parameters of a rate limited method once the listeners allowed its execution")
+    public void shouldBindRateLimitedMethodAfterListenersTest() {
+
+        CommandHandler<Object> handler  = new AutoCommandHandler();
+        AtomicInteger          supplied = new AtomicInteger();
+        AtomicBoolean          cancel   = new AtomicBoolean(true);
+        handler.register(new LimitedCommand());
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {
+
+                if (cancel.get()) {
+                    event.setCancelled(true);
+                } else {
+                    event.getContext().registerClass(StringBuilder.class, new StringBuilder("listener"));
+                }
+            }
+
+            @Override
+            public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {}
+
+            @Override
+            public void onSyntaxError(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onContextCreated(@NotNull ICommandContext<Object> context) {
+
+                context.registerLazyClass(StringBuilder.class, () -> {
+                    supplied.incrementAndGet();
+                    return new StringBuilder("context");
+                });
+            }
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {}
+        });
+
+        Assertions.assertFalse(handler.handle("alice", "!limited greet").isResultAvailable(), "The execution has not been cancelled.");
+        Assertions.assertEquals(0, supplied.get(), "The parameters of a cancelled execution have been bound.");
+
+        cancel.set(false);
+        Assertions.assertEquals("listener", handler.handle("alice", "!limited greet").getResult(), "The value registered by the listener has been ignored.");
+    }
+
+    @Test
+    @DisplayName("Should refuse executions exceeding the class and method rate limits")
+    public void shouldRateLimitTest() {
+
+        CommandHandler<Object> handler  = new AutoCommandHandler();
+        AtomicInteger          limited  = new AtomicInteger();
+        AtomicInteger          executed = new AtomicInteger();
+        handler.register(new LimitedCommand());
+        handler.register(new LimitedCommand("other"));
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {
+
+                executed.incrementAndGet();
+            }
+
+            @Override
+            public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {}
+
+            @Override
+            public void onSyntaxError(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onContextCreated(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {}
+
+            @Override
+            public void onRateLimited(@NotNull ICommandEvent<Object> event, @NotNull Duration retryAfter) {
+
+                Assertions.assertTrue(retryAfter.toMinutes() > 0);
+                limited.incrementAndGet();
+            }
+        });
+
+        Assertions.assertEquals("slow", handler.handle("alice", "!limited slow").getResult());
+        Assertions.assertFalse(handler.handle("alice", "!limited slow").isResultAvailable(), "The method limit has been ignored.");
+        Assertions.assertEquals("free", handler.handle("alice", "!limited free").getResult());
+        Assertions.assertFalse(handler.handle("alice", "!limited free").isResultAvailable(), "The class limit has been ignored.");
+        Assertions.assertEquals("slow", handler.handle("bob", "!limited slow").getResult());
+        Assertions.assertEquals("slow", handler.handle("alice", "!other slow").getResult(), "The limit of another command instance has been used.");
+        Assertions.assertEquals(2, limited.get());
+        Assertions.assertEquals(4, executed.get(), "The listeners have been notified of a rate limited execution.");
+
+        handler.getRateLimits().evictIdleBuckets();
+        Assertions.assertEquals(6, handler.getRateLimits().getBucketCount());
+
+        // Like the command plan, inherited methods are not considered.
+        Assertions.assertTrue(RateLimits.hasMethodLimits(LimitedCommand.class));
+        Assertions.assertFalse(RateLimits.hasMethodLimits(new LimitedCommand() {}.getClass()));
+    }
+
+    @Test
+    @DisplayName("Should evict idle rate limit buckets a slice at a time")
+    public void shouldEvictIdleBucketsIncrementallyTest() throws Exception {
+
+        @RateLimit(period = 1, unit = TimeUnit.MILLISECONDS)
+        class Burst {}
+
+        RateLimits limits = new RateLimits();
+        for (int i = 0; i < 200; i++) {
+            limits.tryAcquire(this, Burst.class, i);
+        }
+        Assertions.assertEquals(200, limits.getBucketCount());
+
+        // Let every bucket become idle and the next sweep round become due.
+        Thread.sleep(1100);
+
+        limits.tryAcquire(this, Burst.class, "emitter");
+        int remaining = limits.getBucketCount();
+        Assertions.assertTrue(remaining > 100, "A single call evicted " + (201 - remaining) + " buckets.");
+
+        for (int i = 0; i < 5; i++) {
+            limits.tryAcquire(this, Burst.class, "emitter");
+        }
+        Assertions.assertTrue(limits.getBucketCount() <= 1, "The sweep round did not complete.");
+    }
+
+    @Test
+    @DisplayName("Should return cached results without invoking the method")
+    public void shouldCacheResultsTest() {
+
+        CommandHandler<Object> handler = new AutoCommandHandler();
+        CachedCommand          command = new CachedCommand();
+        AtomicInteger          hits    = new AtomicInteger();
+        handler.register(command);
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {}
+
+            @Override
+            public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {}
+
+            @Override
+            public void onSyntaxError(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onContextCreated(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {}
+
+            @Override
+            public void onCacheHit(@NotNull ICommandEvent<Object> event) {
+
+                hits.incrementAndGet();
+            }
+        });
+
+        Assertions.assertEquals("a1", handler.handle(this, "!lookup a").getResult());
+        Assertions.assertEquals("a1", handler.handle(this, "!lookup a").getResult());
+        Assertions.assertEquals("b2", handler.handle(this, "!lookup b").getResult());
+        Assertions.assertEquals("c3", handler.handle(this, "!lookup c").getResult());
+        Assertions.assertEquals("a4", handler.handle(this, "!lookup a").getResult(), "The least recently used value has not been evicted.");
+        Assertions.assertEquals("c3", handler.handle(this, "!lookup c").getResult());
+        Assertions.assertEquals(2, hits.get());
+
+        command.invalidateCache();
+        Assertions.assertEquals("c5", handler.handle(this, "!lookup c").getResult());
+    }
+
+    @Test
+    @DisplayName("Should reuse keyed options until they are invalidated")
+    public void shouldCacheKeyedOptionsTest() {
+
+        CommandHandler<Object> handler = new AutoCommandHandler();
+        OptionsCommand         command = new OptionsCommand();
+        handler.register(command);
+
+        command.setColors("alice", Arrays.asList("red", "blue"));
+        command.setColors("bob", Collections.singletonList("green"));
+
+        Assertions.assertEquals("red", handler.handle("alice", "!color red").getResult());
+        Assertions.assertEquals("blue", handler.handle("alice", "!color blue").getResult());
+        Assertions.assertFalse(handler.handle("bob", "!color red").isResultAvailable());
+        Assertions.assertEquals("green", handler.handle("bob", "!color green").getResult());
+        Assertions.assertEquals(2, command.getLoads());
+
+        command.setColors("bob", Collections.singletonList("red"));
+        Assertions.assertFalse(handler.handle("bob", "!color red").isResultAvailable(), "The options have been reloaded.");
+
+        handler.invalidateOptions(command, "bob");
+        Assertions.assertEquals("red", handler.handle("bob", "!color red").getResult());
+        Assertions.assertEquals("red", handler.handle("alice", "!color red").getResult());
+        Assertions.assertEquals(3, command.getLoads());
+    }
+
+    @Test
+    @DisplayName("Should record the outcome and latency of every message")
+    public void shouldRecordMetricsTest() {
+
+        CommandHandler<Object> handler = new AutoCommandHandler();
+        handler.register(new HelloCommand());
+        handler.setMetrics(new CommandMetrics());
+
+        handler.handle(this, "!hello world");
+        handler.handle(this, "!hello John");
+        handler.handle(this, "!hello a b c");
+        handler.handle(this, "!hello fail");
+        handler.handle(this, "!unknown");
+
+        MetricsSnapshot snapshot = handler.getMetrics().getSnapshot();
+
+        Assertions.assertEquals(1, snapshot.getNotFoundCount());
+        Assertions.assertEquals(2, snapshot.getCount(ICommandMetrics.Outcome.SUCCESS));
+        Assertions.assertEquals(1, snapshot.getCount(ICommandMetrics.Outcome.SYNTAX_ERROR));
+        Assertions.assertEquals(1, snapshot.getCount(ICommandMetrics.Outcome.EXCEPTION));
+        Assertions.assertEquals(0, snapshot.getInFlight());
+        Assertions.assertEquals(4, snapshot.getLatencyByLabel().get("hello").getCount());
+        Assertions.assertEquals(1, snapshot.getLatencyByMethod().get(HelloCommand.class.getName() + "#fail").getCount());
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        HistogramSnapshot latency = histogram.getSnapshot();
+        Assertions.assertEquals(500_000, latency.getValueAtPercentile(50), 500_000 * 0.125);
+        Assertions.assertEquals(1_000_000, latency.getValueAtPercentile(100));
+        Assertions.assertEquals(500_500, latency.getMean(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should complete the metrics record of a message when a listener throws")
+    public void shouldCompleteMetricsWhenListenerThrowsTest() {
+
+        CommandHandler<Object> handler = new AutoCommandHandler();
+        handler.register(new HelloCommand());
+        handler.setMetrics(new CommandMetrics());
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {
+
+                if (event.getMessage().endsWith("throw")) {
+                    throw new IllegalStateException("This listener always fails.");
+                }
+            }
+
+            @Override
+            public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {
+
+                throw new IllegalStateException("This listener always fails.");
+            }
+
+            @Override
+            public void onSyntaxError(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onContextCreated(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {}
+        });
+
+        Assertions.assertThrows(IllegalStateException.class, () -> handler.handle(this, "!hello throw"));
+        Assertions.assertThrows(IllegalStateException.class, () -> handler.handle(this, "!hello fail"));
+        Assertions.assertThrows(IllegalStateException.class, () -> handler.handleAll(Arrays.asList(
+                new AbstractMap.SimpleImmutableEntry<>(this, "!hello world"),
+                new AbstractMap.SimpleImmutableEntry<>(this, "!hello throw")
+        )));
+
+        MetricsSnapshot snapshot = handler.getMetrics().getSnapshot();
+
+        Assertions.assertEquals(0, snapshot.getInFlight(), "A record has not been completed.");
+        Assertions.assertEquals(3, snapshot.getCount(ICommandMetrics.Outcome.EXCEPTION));
+        Assertions.assertEquals(1, snapshot.getCount(ICommandMetrics.Outcome.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("Should emit a flight recorder event per phase when enabled")
+    public void shouldRecordFlightEventsTest() throws Exception {
+
+        CommandHandler<Object> handler = new AutoCommandHandler();
+        handler.register(new HelloCommand());
+
+        // Disabled events must not be recorded.
+        handler.handle(this, "!hello world");
+
+        Path file = Files.createTempFile("commandr", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : Arrays.asList("Resolution", "Dispatch", "Matching", "Binding", "Execution")) {
+                recording.enable("fr.alexpado.commandr." + name).withoutThreshold();
+            }
+            recording.start();
+
+            handler.handle(this, "!hello world");
+            handler.handle(this, "!unknown");
+
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            events.removeIf(event -> !event.getEventType().getName().startsWith("fr.alexpado.commandr."));
+            events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+
+            Assertions.assertEquals(6, events.size());
+            Assertions.assertEquals("FOUND", events.get(0).getString("outcome"));
+            Assertions.assertEquals("hello", events.get(0).getString("label"));
+            Assertions.assertEquals("SUCCESS", events.stream()
+                                                      .filter(event -> event.getEventType().getName().endsWith("Execution"))
+                                                      .findFirst()
+                                                      .map(event -> event.getString("outcome"))
+                                                      .orElse(null));
+            Assertions.assertEquals(HelloCommand.class.getName() + "#sayHelloWorld", events.get(4).getString("method"));
+            Assertions.assertEquals("NOT_FOUND", events.get(5).getString("outcome"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Should dispatch through the generated dispatcher when available")
+    public void shouldUseGeneratedDispatcherTest() {
+
+        Assertions.assertTrue(CommandPlan.of(HelloCommand.class).isGenerated(), "The generated dispatcher is not used.");
+        Assertions.assertEquals(7, CommandPlan.of(HelloCommand.class).getMethods().size());
+        // @Param on an Integer cannot be dispatched: the processor leaves it to reflection, which refuses it.
+        Assertions.assertNull(CommandDispatcher.find(BrokenCommand.class));
+        // A dispatcher not matching the annotations of its class anymore is ignored.
+        Assertions.assertNotNull(CommandDispatcher.find(StaleCommand.class));
+        Assertions.assertFalse(CommandPlan.of(StaleCommand.class).isGenerated(), "The stale dispatcher is used.");
+        Assertions.assertEquals(2, CommandPlan.of(StaleCommand.class).getMethods().size());
+
+        ICommandHandler<Object> handler = new AutoCommandHandler();
+        handler.register(new HelloCommand());
+
+        Assertions.assertEquals("Hello World, John!", handler.handle(this, "!hello world John").getResult());
+        Assertions.assertEquals("Hello, John!", handler.handle(this, "!hello John").getResult());
+    }
+
+    @Test
+    @DisplayName("Should only load a snapshot written for the same command classes")
+    public void shouldLoadRegistrySnapshotTest() throws Exception {
+
+        CommandHandler<Object> handler = new AutoCommandHandler();
+        handler.register(new HelloCommand());
+        handler.register(new PingCommand("ping"));
+
+        Path file = Files.createTempFile("commandr", ".snapshot");
+        try {
+            handler.saveSnapshot(file);
+
+            // The classes of this class loader have already been compiled: only fresh copies can use the snapshot.
+            ClassLoader isolated = new IsolatedClassLoader(this.getClass().getClassLoader(), "fr.alexpado.commandr.data.commands.");
+            List<Class<?>> types = Arrays.asList(
+                    isolated.loadClass(PingCommand.class.getName()),
+                    isolated.loadClass(HelloCommand.class.getName())
+            );
+
+            Assertions.assertTrue(handler.loadSnapshot(file, types));
+            Assertions.assertFalse(handler.loadSnapshot(file, types), "A snapshot has been reported loaded for compiled classes.");
+            Assertions.assertFalse(handler.loadSnapshot(file, Arrays.asList(PingCommand.class, HelloCommand.class)), "A snapshot has been reported loaded for compiled classes.");
+            Assertions.assertFalse(handler.loadSnapshot(file, Collections.singletonList(HelloCommand.class)), "A stale snapshot has been loaded.");
+
+            Files.write(file, Arrays.copyOf(Files.readAllBytes(file), 64));
+            Assertions.assertFalse(handler.loadSnapshot(file, Arrays.asList(PingCommand.class, HelloCommand.class)), "A truncated snapshot has been loaded.");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        Assertions.assertFalse(handler.loadSnapshot(file, Collections.singletonList(HelloCommand.class)));
+    }
+
+    @Test
+    @DisplayName("Should register commands in bulk, reporting every duplicated label at once")
+    public void shouldRegisterAllCommandsTest() throws Exception {
+
+        CommandHandler<Object> handler = new AutoCommandHandler();
+        RegistrationReport     report  = handler.registerAll(Arrays.asList(new HelloCommand(), new PingCommand("ping"), new PingCommand("pong")));
+
+        Assertions.assertEquals(3, report.getCommandCount());
+        Assertions.assertEquals("pong", handler.handle(this, "!pong").getResult());
+        Assertions.assertEquals("Hello World!", handler.handle(this, "!hi world").getResult());
+
+        IllegalStateException exception = Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> handler.registerAll(Arrays.asList(new PingCommand("pang"), new PingCommand("hello"), new PingCommand("PANG")))
+        );
+        Assertions.assertTrue(exception.getMessage().contains("'hello'"), exception.getMessage());
+        Assertions.assertTrue(exception.getMessage().contains("'PANG'"), exception.getMessage());
+        Assertions.assertTrue(handler.getCommand("pang").isEmpty(), "A command has been partially registered.");
+
+        List<Class<? extends CommandImpl<?>>> types = CommandScanner.scan("fr.alexpado.commandr.data.commands", this.getClass().getClassLoader());
+        Assertions.assertTrue(types.contains(HelloCommand.class), "HelloCommand has not been discovered.");
+        Assertions.assertFalse(types.contains(PingCommand.class), "PingCommand cannot be created without its label.");
+
+        // BrokenCommand is discovered too, and cannot be compiled.
+        Assertions.assertThrows(IllegalStateException.class, () -> new AutoCommandHandler().registerPackage("fr.alexpado.commandr.data.commands"));
+    }
+
+    @Test
+    @DisplayName("Should warm up every syntax without side effects")
+    public void shouldWarmUpWithoutSideEffectsTest() {
+
+        AtomicInteger          contexts = new AtomicInteger();
+        OptionsCommand         options  = new OptionsCommand();
+        CommandHandler<Object> handler  = new AutoCommandHandler() {
+
+            @Override
+            public @NotNull ICommandContext<Object> createContext(@NotNull Object emitter) {
+
+                contexts.incrementAndGet();
+                return super.createContext(emitter);
+            }
+        };
+        handler.registerAll(Arrays.asList(new HelloCommand(), new CachedCommand(), new LimitedCommand(), options));
+        handler.setMetrics(new CommandMetrics());
+        AtomicInteger notifications = new AtomicInteger();
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {
+
+                notifications.incrementAndGet();
+            }
+
+            @Override
+            public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {
+
+                notifications.incrementAndGet();
+            }
+
+            @Override
+            public void onSyntaxError(@NotNull ICommandContext<Object> context) {
+
+                notifications.incrementAndGet();
+            }
+
+            @Override
+            public void onContextCreated(@NotNull ICommandContext<Object> context) {
+
+                notifications.incrementAndGet();
+            }
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {
+
+                notifications.incrementAndGet();
+            }
+        });
+
+        Assertions.assertFalse(handler.isReady());
+        handler.warmUp("warm-up", 50);
+        Assertions.assertTrue(handler.isReady());
+
+        Assertions.assertEquals(0, notifications.get(), "The listeners have been notified.");
+        Assertions.assertEquals(0, handler.getMetrics().getSnapshot().getNotFoundCount(), "The metrics have been recorded.");
+        Assertions.assertEquals(0, contexts.get(), "A context has been created by the handler.");
+        Assertions.assertEquals(0, options.getLoads(), "The options have been retrieved.");
+        Assertions.assertEquals(0, handler.getRateLimits().getBucketCount(), "A rate limit has been checked.");
+        Assertions.assertEquals("john1", handler.handle("warm-up", "!lookup john").getResult(), "A command has been invoked.");
+        Assertions.assertEquals("slow", handler.handle("warm-up", "!limited slow").getResult(), "A rate limit has been consumed.");
+    }
+
+    @Test
+    @DisplayName("Should create lazily registered classes only when required, and recycle contexts")
+    public void shouldRecycleLazyContextTest() {
+
+        CommandHandler<Object> handler  = new AutoCommandHandler();
+        HelloCommand           command  = new HelloCommand();
+        AtomicInteger          created  = new AtomicInteger();
+        Set<Object>            contexts = Collections.newSetFromMap(new IdentityHashMap<>());
+        handler.register(command);
+        handler.setRecycleContexts(true);
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandExecution(@NotNull ICommandEvent<Object> event) {}
+
+            @Override
+            public void onCommandException(@NotNull ICommandEvent<Object> event, @NotNull Exception throwable) {}
+
+            @Override
+            public void onSyntaxError(@NotNull ICommandContext<Object> context) {}
+
+            @Override
+            public void onContextCreated(@NotNull ICommandContext<Object> context) {
+
+                Assertions.assertFalse(context.hasClass(HelloCommand.class), "A recycled context has not been cleared.");
+                contexts.add(context);
+                context.registerLazyClass(HelloCommand.class, () -> {
+                    created.incrementAndGet();
+                    return command;
+                });
+            }
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {}
+        });
+
+        Assertions.assertEquals("Hello World!", handler.handle(this, "!hello world").getResult());
+        Assertions.assertEquals("Hello, John!", handler.handle(this, "!hello John").getResult());
+        Assertions.assertEquals(0, created.get(), "A lazy class has been created without being required.");
+
+        Assertions.assertEquals(command.getMeta().getDescription(), handler.handle(this, "!hello cmd desc").getResult());
+        Assertions.assertEquals(1, created.get());
+        Assertions.assertEquals(1, contexts.size(), "The context has not been recycled.");
+
+        CommandHandler<Object> custom = new AutoCommandHandler() {
+
+            @Override
+            public @NotNull ICommandContext<Object> createContext(@NotNull Object emitter) {
+
+                return new CommandContext<>(emitter);
+            }
+        };
+        Assertions.assertThrows(IllegalStateException.class, () -> custom.setRecycleContexts(true));
+    }
+
+    @Test
+    @DisplayName("Should only call overridden listener methods and run interceptors around executions")
+    public void shouldInterceptExecutionTest() {
+
+        CommandHandler<Object> handler  = new AutoCommandHandler();
+        AtomicInteger          notFound = new AtomicInteger();
+        List<String>           calls    = new ArrayList<>();
+        handler.register(new HelloCommand());
+
+        handler.addEventListener(new ICommandListener<>() {
+
+            @Override
+            public void onCommandNotFound(@NotNull ICommandHandler<Object> handler, @NotNull Object emitter, @NotNull String command) {
+
+                notFound.incrementAndGet();
+            }
+        });
+
+        ListenerChain<Object> chain = handler.getRegistry().getListenerChain();
+        Assertions.assertEquals(1, chain.get(ListenerChain.Callback.COMMAND_NOT_FOUND).length);
+        Assertions.assertEquals(0, chain.get(ListenerChain.Callback.COMMAND_EXECUTION).length);
+
+        handler.register(new PingCommand("ping"));
+        Assertions.assertSame(chain, handler.getRegistry().getListenerChain(), "The chain has been rebuilt without listener change.");
+
+        ICommandInterceptor<Object> blocker = (event, invocation) -> {
+            calls.add("inner");
+            return event.getInput().getRaw().endsWith("fail") ? IExecutionResult.success("blocked") : invocation.invoke();
+        };
+
+        handler.addInterceptor((event, invocation) -> {
+            calls.add("outer");
+            return invocation.invoke();
+        });
+        handler.addInterceptor(blocker);
+
+        Assertions.assertEquals("Hello World!", handler.handle(this, "!hello world").getResult());
+        Assertions.assertEquals(Arrays.asList("outer", "inner"), calls);
+        Assertions.assertEquals("blocked", handler.handle(this, "!hello fail").getResult());
+
+        handler.removeInterceptor(blocker);
+        Assertions.assertThrows(IllegalStateException.class, () -> handler.removeInterceptor(blocker));
+        Assertions.assertThrows(IllegalStateException.class, () -> handler.addInterceptor(handler.getRegistry().getListenerChain().getInterceptors()[0]));
+
+        handler.handle(this, "!unknown");
+        Assertions.assertEquals(1, notFound.get());
+    }
 
 }
@@ -0,0 +1,45 @@
+package fr.alexpado.commandr.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Class loader defining its own copy of the classes of a package, so that they are seen as new classes by the
+ * per-class caches of the library. Every other class is loaded by the parent.
+ */
+public class IsolatedClassLoader extends ClassLoader {
+
+    private final String prefix;
+
+    public IsolatedClassLoader(ClassLoader parent, String prefix) {
+
+        super(parent);
+        this.prefix = prefix;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+
+        if (!name.startsWith(this.prefix)) {
+            return super.loadClass(name, resolve);
+        }
+
+        synchronized (this.getClassLoadingLock(name)) {
+            Class<?> type = this.findLoadedClass(name);
+            if (type != null) {
+                return type;
+            }
+
+            try (InputStream input = this.getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                if (input == null) {
+                    throw new ClassNotFoundException(name);
+                }
+
+                byte[] bytes = input.readAllBytes();
+                return this.defineClass(name, bytes, 0, bytes.length);
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package fr.alexpado.commandr.data.commands;
+
+import fr.alexpado.commandr.annotations.Command;
+import fr.alexpado.commandr.annotations.Param;
+import fr.alexpado.commandr.impl.CommandImpl;
+import fr.alexpado.commandr.interfaces.ICommand;
+import fr.alexpado.commandr.interfaces.ICommandContext;
+import fr.alexpado.commandr.interfaces.ICommandMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+// Deliberately unregistrable: the annotation processor must not reject it at compile time.
+@SuppressWarnings("commandr")
+public class BrokenCommand extends CommandImpl<Object> {
+
+    /**
+     * Retrieve the command meta for this {@link ICommand}.
+     *
+     * @return An {@link ICommandMeta} instance.
+     */
+    @Override
+    public @NotNull ICommandMeta<Object> getMeta() {
+
+        return new ICommandMeta<>() {
+
+            @Override
+            public @NotNull String getLabel() {
+
+                return "broken";
+            }
+
+            @Override
+            public String getDescription() {
+
+                return "Command that can never be bound";
+            }
+
+            @Override
+            public @Nullable Map<String, List<String>> getOptions(@NotNull ICommandContext<Object> context) {
+
+                return null;
+            }
+        };
+    }
+
+    @Command("[amount]")
+    public String getAmount(@Param("amount") Integer amount) {
+        return String.valueOf(amount);
+    }
+}
@@ -0,0 +1,56 @@
+package fr.alexpado.commandr.data.commands;
+
+import fr.alexpado.commandr.annotations.Cacheable;
+import fr.alexpado.commandr.annotations.Command;
+import fr.alexpado.commandr.annotations.Param;
+import fr.alexpado.commandr.impl.CommandImpl;
+import fr.alexpado.commandr.interfaces.ICommand;
+import fr.alexpado.commandr.interfaces.ICommandContext;
+import fr.alexpado.commandr.interfaces.ICommandMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+public class CachedCommand extends CommandImpl<Object> {
+
+    private int invocations = 0;
+
+    /**
+     * Retrieve the command meta for this {@link ICommand}.
+     *
+     * @return An {@link ICommandMeta} instance.
+     */
+    @Override
+    public @NotNull ICommandMeta<Object> getMeta() {
+
+        return new ICommandMeta<>() {
+
+            @Override
+            public @NotNull String getLabel() {
+
+                return "lookup";
+            }
+
+            @Override
+            public String getDescription() {
+
+                return "Command returning the name with the amount of invocations, caching the last two names";
+            }
+
+            @Override
+            public @Nullable Map<String, List<String>> getOptions(@NotNull ICommandContext<Object> context) {
+
+                return null;
+            }
+        };
+    }
+
+    @Command("[name]")
+    @Cacheable(maxSize = 2)
+    public String lookup(@Param("name") String name) {
+        this.invocations++;
+        return name + this.invocations;
+    }
+}
@@ -9,6 +9,7 @@ import fr.alexpado.commandr.interfaces.ICommandMeta;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +37,12 @@ public class HelloCommand extends CommandImpl<Object> {
                 return "Hello World for Unit Tests";
             }
 
+            @Override
+            public @NotNull List<String> getAliases() {
+
+                return Collections.singletonList("hi");
+            }
+
             @Override
             public @Nullable Map<String, List<String>> getOptions(@NotNull ICommandContext<Object> context) {
 
@@ -71,4 +78,14 @@ public class HelloCommand extends CommandImpl<Object> {
     public String getHelloDescription(HelloCommand command) {
         return command.getMeta().getDescription();
     }
+
+    @Command("fail")
+    public String fail() {
+        throw new UnsupportedOperationException("This command always fails.");
+    }
+
+    @Command("assert")
+    public String failAssertion() {
+        throw new AssertionError("This command always fails an assertion.");
+    }
 }
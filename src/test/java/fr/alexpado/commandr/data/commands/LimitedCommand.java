@@ -0,0 +1,77 @@
+package fr.alexpado.commandr.data.commands;
+
+import fr.alexpado.commandr.annotations.Command;
+import fr.alexpado.commandr.annotations.RateLimit;
+import fr.alexpado.commandr.impl.CommandImpl;
+import fr.alexpado.commandr.interfaces.ICommand;
+import fr.alexpado.commandr.interfaces.ICommandContext;
+import fr.alexpado.commandr.interfaces.ICommandMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RateLimit(permits = 3, period = 1, unit = TimeUnit.HOURS)
+public class LimitedCommand extends CommandImpl<Object> {
+
+    private final String label;
+
+    public LimitedCommand() {
+
+        this("limited");
+    }
+
+    public LimitedCommand(String label) {
+
+        this.label = label;
+    }
+
+    /**
+     * Retrieve the command meta for this {@link ICommand}.
+     *
+     * @return An {@link ICommandMeta} instance.
+     */
+    @Override
+    public @NotNull ICommandMeta<Object> getMeta() {
+
+        return new ICommandMeta<>() {
+
+            @Override
+            public @NotNull String getLabel() {
+
+                return LimitedCommand.this.label;
+            }
+
+            @Override
+            public String getDescription() {
+
+                return "Command allowing three executions per hour, and a single 'slow' execution per hour";
+            }
+
+            @Override
+            public @Nullable Map<String, List<String>> getOptions(@NotNull ICommandContext<Object> context) {
+
+                return null;
+            }
+        };
+    }
+
+    @Command("free")
+    public String free() {
+        return "free";
+    }
+
+    @Command("slow")
+    @RateLimit(period = 1, unit = TimeUnit.HOURS)
+    public String slow() {
+        return "slow";
+    }
+
+    @Command("greet")
+    @RateLimit(permits = 2, period = 1, unit = TimeUnit.HOURS)
+    public String greet(StringBuilder greeting) {
+        return greeting.toString();
+    }
+}
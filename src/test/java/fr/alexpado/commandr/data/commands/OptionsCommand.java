@@ -0,0 +1,81 @@
+package fr.alexpado.commandr.data.commands;
+
+import fr.alexpado.commandr.annotations.Command;
+import fr.alexpado.commandr.annotations.Param;
+import fr.alexpado.commandr.impl.CommandImpl;
+import fr.alexpado.commandr.interfaces.ICommand;
+import fr.alexpado.commandr.interfaces.ICommandContext;
+import fr.alexpado.commandr.interfaces.ICommandMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OptionsCommand extends CommandImpl<Object> {
+
+    private final Map<Object, List<String>> colors = new ConcurrentHashMap<>();
+    private final AtomicInteger             loads  = new AtomicInteger();
+
+    public void setColors(Object emitter, List<String> colors) {
+
+        this.colors.put(emitter, colors);
+    }
+
+    public int getLoads() {
+
+        return this.loads.get();
+    }
+
+    /**
+     * Retrieve the command meta for this {@link ICommand}.
+     *
+     * @return An {@link ICommandMeta} instance.
+     */
+    @Override
+    public @NotNull ICommandMeta<Object> getMeta() {
+
+        return new ICommandMeta<>() {
+
+            @Override
+            public @NotNull String getLabel() {
+
+                return "color";
+            }
+
+            @Override
+            public String getDescription() {
+
+                return "Command accepting only the colors configured for its emitter";
+            }
+
+            @Override
+            public @Nullable Map<String, List<String>> getOptions(@NotNull ICommandContext<Object> context) {
+
+                OptionsCommand.this.loads.incrementAndGet();
+                List<String> colors = OptionsCommand.this.colors.getOrDefault(context.getEmitter(), Collections.emptyList());
+                return Collections.singletonMap("color", colors);
+            }
+
+            @Override
+            public @NotNull OptionsScope getOptionsScope() {
+
+                return OptionsScope.KEYED;
+            }
+
+            @Override
+            public @Nullable Object getOptionsKey(@NotNull ICommandContext<Object> context) {
+
+                return context.getEmitter();
+            }
+        };
+    }
+
+    @Command("[color]")
+    public String color(@Param("color") String color) {
+        return color;
+    }
+}
@@ -0,0 +1,57 @@
+package fr.alexpado.commandr.data.commands;
+
+import fr.alexpado.commandr.annotations.Command;
+import fr.alexpado.commandr.impl.CommandImpl;
+import fr.alexpado.commandr.interfaces.ICommand;
+import fr.alexpado.commandr.interfaces.ICommandContext;
+import fr.alexpado.commandr.interfaces.ICommandMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+public class PingCommand extends CommandImpl<Object> {
+
+    private final String label;
+
+    public PingCommand(String label) {
+
+        this.label = label;
+    }
+
+    /**
+     * Retrieve the command meta for this {@link ICommand}.
+     *
+     * @return An {@link ICommandMeta} instance.
+     */
+    @Override
+    public @NotNull ICommandMeta<Object> getMeta() {
+
+        return new ICommandMeta<>() {
+
+            @Override
+            public @NotNull String getLabel() {
+
+                return PingCommand.this.label;
+            }
+
+            @Override
+            public String getDescription() {
+
+                return "Command answering with its own label";
+            }
+
+            @Override
+            public @Nullable Map<String, List<String>> getOptions(@NotNull ICommandContext<Object> context) {
+
+                return null;
+            }
+        };
+    }
+
+    @Command
+    public String ping() {
+        return this.label;
+    }
+}
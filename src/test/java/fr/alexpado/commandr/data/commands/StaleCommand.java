@@ -0,0 +1,59 @@
+package fr.alexpado.commandr.data.commands;
+
+import fr.alexpado.commandr.annotations.Command;
+import fr.alexpado.commandr.impl.CommandImpl;
+import fr.alexpado.commandr.interfaces.ICommand;
+import fr.alexpado.commandr.interfaces.ICommandContext;
+import fr.alexpado.commandr.interfaces.ICommandMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command whose dispatcher, {@link StaleCommand_CommandrDispatcher}, has been written for a previous version of the
+ * class. Its methods are private so that the annotation processor does not generate a new one.
+ */
+public class StaleCommand extends CommandImpl<Object> {
+
+    /**
+     * Retrieve the command meta for this {@link ICommand}.
+     *
+     * @return An {@link ICommandMeta} instance.
+     */
+    @Override
+    public @NotNull ICommandMeta<Object> getMeta() {
+
+        return new ICommandMeta<>() {
+
+            @Override
+            public @NotNull String getLabel() {
+
+                return "stale";
+            }
+
+            @Override
+            public String getDescription() {
+
+                return "Command whose dispatcher is outdated";
+            }
+
+            @Override
+            public @Nullable Map<String, List<String>> getOptions(@NotNull ICommandContext<Object> context) {
+
+                return null;
+            }
+        };
+    }
+
+    @Command("current")
+    private String current() {
+        return "current";
+    }
+
+    @Command("added")
+    private String added() {
+        return "added";
+    }
+}
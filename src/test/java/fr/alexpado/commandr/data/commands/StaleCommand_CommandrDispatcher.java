@@ -0,0 +1,24 @@
+package fr.alexpado.commandr.data.commands;
+
+import fr.alexpado.commandr.impl.plan.CommandDispatcher;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Dispatcher generated for a previous version of {@link StaleCommand}, declaring the 'current' method under its former
+ * syntax.
+ */
+public class StaleCommand_CommandrDispatcher extends CommandDispatcher {
+
+    public StaleCommand_CommandrDispatcher() {
+
+        super(StaleCommand.class);
+        this.declare("current", new Class<?>[0], "previous", 0);
+        this.declare("added", new Class<?>[0], "added", 0);
+    }
+
+    @Override
+    public Object invoke(int index, @NotNull Object target, @NotNull Object[] arguments) {
+
+        throw new UnsupportedOperationException("The stale dispatcher has been used.");
+    }
+}